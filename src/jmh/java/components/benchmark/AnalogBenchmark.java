@@ -0,0 +1,58 @@
+package components.benchmark;
+
+import components.base.pins.analog.AnalogInputPin;
+import components.base.pins.analog.AnalogOutputPin;
+import components.base.pins.components.PinIdentifier;
+import components.simulation.SimulatedBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Analog reads and writes against the mock provider.
+ */
+@State(Scope.Benchmark)
+public class AnalogBenchmark {
+
+    private SimulatedBoard board;
+    private AnalogOutputPin output;
+    private AnalogInputPin input;
+    private int value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new SimulatedBoard(false);
+        output = new AnalogOutputPin(board.context(),PinIdentifier.PIN_11);
+        input = new AnalogInputPin(board.context(),PinIdentifier.PIN_13);
+        board.analog(PinIdentifier.PIN_13,512);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        board.close();
+    }
+
+    @Benchmark
+    public void outputSet() {
+        value = value == 1023 ? 0 : value + 1;
+        output.set(value);
+    }
+
+    @Benchmark
+    public Number inputRead() {
+        return input.read();
+    }
+
+    @Benchmark
+    public int inputReadInt() {
+        return input.readInt();
+    }
+
+    @Benchmark
+    public double inputReadDouble() {
+        return input.readDouble();
+    }
+}
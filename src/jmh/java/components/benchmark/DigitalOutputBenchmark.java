@@ -0,0 +1,61 @@
+package components.benchmark;
+
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.digital.DigitalOutputBank;
+import components.base.pins.digital.DigitalOutputPin;
+import components.simulation.SimulatedBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Digital output writes against the mock provider, changing and redundant.
+ */
+@State(Scope.Benchmark)
+public class DigitalOutputBenchmark {
+
+    private SimulatedBoard board;
+    private DigitalOutputPin pin;
+    private DigitalOutputBank bank;
+    private boolean high;
+    private long mask;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new SimulatedBoard(false);
+        pin = new DigitalOutputPin(board.context(),PinIdentifier.PIN_11);
+        bank = new DigitalOutputBank(board.context(),PinIdentifier.PIN_13,PinIdentifier.PIN_15,PinIdentifier.PIN_16,
+                PinIdentifier.PIN_18,PinIdentifier.PIN_22,PinIdentifier.PIN_29,PinIdentifier.PIN_31,PinIdentifier.PIN_37);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        board.close();
+    }
+
+    @Benchmark
+    public void onOff() {
+        high = !high;
+        if (high) pin.on();
+        else pin.off();
+    }
+
+    @Benchmark
+    public void redundantOn() {
+        pin.on();
+    }
+
+    @Benchmark
+    public boolean toggle() {
+        return pin.toggle();
+    }
+
+    @Benchmark
+    public void bankWrite() {
+        mask = mask * 6364136223846793005L + 1442695040888963407L;
+        bank.write(mask >>> 56);
+    }
+}
@@ -0,0 +1,35 @@
+package components.benchmark;
+
+import components.base.pins.components.PinIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Pin lookups, which every pin constructor and manifest goes through.
+ */
+@State(Scope.Thread)
+public class PinIdentifierBenchmark {
+
+    private int pin = 1;
+
+    private int next() {
+        pin = pin == 40 ? 1 : pin + 1;
+        return pin;
+    }
+
+    @Benchmark
+    public PinIdentifier getPin() {
+        return PinIdentifier.getPin(next());
+    }
+
+    @Benchmark
+    public PinIdentifier getPinByBcm() {
+        return PinIdentifier.getPinByBcm(next() % (PinIdentifier.maximumBcm + 1));
+    }
+
+    @Benchmark
+    public int toBcm() {
+        return PinIdentifier.toBcm(next());
+    }
+}
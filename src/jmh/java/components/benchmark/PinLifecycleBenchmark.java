@@ -0,0 +1,46 @@
+package components.benchmark;
+
+import components.base.pins.PinRegistry;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.digital.DigitalOutputPin;
+import components.simulation.SimulatedBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Claiming pins in the registry, and constructing and closing pins against the mock provider.
+ */
+@State(Scope.Benchmark)
+public class PinLifecycleBenchmark {
+
+    private final Object owner = new Object();
+    private SimulatedBoard board;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new SimulatedBoard(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        board.close();
+    }
+
+    @Benchmark
+    public boolean registryClaimRelease() {
+        final boolean claimed = PinRegistry.claim(PinIdentifier.PIN_37,owner);
+        PinRegistry.release(PinIdentifier.PIN_37,owner);
+        return claimed;
+    }
+
+    @Benchmark
+    public DigitalOutputPin createDigitalOutput() {
+        final DigitalOutputPin pin = new DigitalOutputPin(board.context(),PinIdentifier.PIN_11);
+        pin.close();
+        return pin;
+    }
+}
@@ -0,0 +1,45 @@
+package components.benchmark;
+
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.pwm.PwmPin;
+import components.simulation.SimulatedBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * PWM duty cycle writes against the mock provider.
+ */
+@State(Scope.Benchmark)
+public class PwmBenchmark {
+
+    private SimulatedBoard board;
+    private PwmPin pin;
+    private float dutyCycle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new SimulatedBoard(false);
+        pin = new PwmPin(board.context(),PinIdentifier.PIN_32,1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        board.close();
+    }
+
+    @Benchmark
+    public void setDutyCycle() {
+        dutyCycle = dutyCycle >= 100 ? 0 : dutyCycle + 0.5f;
+        pin.setDutyCycle(dutyCycle);
+    }
+
+    @Benchmark
+    public void on() {
+        dutyCycle = dutyCycle >= 100 ? 0 : dutyCycle + 0.5f;
+        pin.on(dutyCycle);
+    }
+}
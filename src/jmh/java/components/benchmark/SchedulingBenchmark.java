@@ -0,0 +1,62 @@
+package components.benchmark;
+
+import components.base.pins.components.PinIdentifier;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import components.servo.Servo;
+import components.simulation.SimulatedBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling and cancelling delayed servo commands, with a number of other commands already pending.
+ */
+@State(Scope.Benchmark)
+public class SchedulingBenchmark {
+
+    @Param({"0", "10000"})
+    public int pending;
+
+    private SimulatedBoard board;
+    private Servo servo;
+    private final List<Timeout> background = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = new SimulatedBoard(false);
+        servo = new Servo.Builder.RawBuilder(board.context())
+                .pin(PinIdentifier.PIN_15)
+                .range(0,1023)
+                .build();
+        for (int i = 0; i < pending; i++) background.add(ActuationScheduler.schedule(() -> {},1,TimeUnit.HOURS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (final Timeout timeout : background) timeout.cancel();
+        background.clear();
+        servo.close();
+        board.close();
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        final Timeout timeout = servo.set(512,60_000);
+        return timeout.cancel();
+    }
+
+    @Benchmark
+    public boolean scheduleHighAndCancel() {
+        final Timeout timeout = servo.high(60_000,TimeUnit.MILLISECONDS);
+        return timeout.cancel();
+    }
+}
@@ -0,0 +1,232 @@
+package components;
+
+import com.pi4j.context.Context;
+import components.base.Component;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.pwm.PwmPin;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An LED with adjustable brightness, driven by a {@link PwmPin}.<br>
+ * The eye perceives brightness far from linearly, so brightness is mapped onto the duty cycle through a precomputed
+ * gamma lookup table, making equal steps in brightness look equal. The table has one entry per 8-bit brightness
+ * level, and brightness between two levels is interpolated.<br>
+ * The LED remembers the duty cycle it last wrote, and skips writes that would not change it.
+ * Crossfades run as periodic tasks on the shared {@link ActuationScheduler}, so any number of LEDs can fade
+ * at the same time without a thread each.
+ */
+@SuppressWarnings("unused")
+public class DimmableLED extends Component {
+
+    public static final double defaultGamma = 2.2;
+    public static final int defaultFrequency = 1000;
+    public static final int defaultFadeHz = 100;
+
+    private static final float[] defaultTable = table(defaultGamma);
+
+    private final PwmPin pin;
+    private final float[] table;
+
+    private double brightness = 0;
+    private float dutyCycle = -1;
+    private long skippedWrites = 0;
+
+    private Timeout fade;
+    private double fadeFrom;
+    private double fadeTo;
+    private int fadeStep;
+    private int fadeSteps;
+
+    public DimmableLED(@NotNull final Context pi4j, @NotNull final PinIdentifier pin) {
+        this(pi4j,pin,defaultFrequency,defaultGamma);
+    }
+
+    /**
+     * Create a new Dimmable LED. The LED starts off.
+     *
+     * @param pi4j      The Pi4J Context.
+     * @param pin       The Pin Identifier to assign.
+     * @param frequency The PWM frequency.
+     * @param gamma     The gamma of the brightness curve. 1 maps brightness linearly onto the duty cycle.
+     * @throws IllegalArgumentException If the gamma is not positive.
+     */
+    public DimmableLED(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, final int frequency, final double gamma) throws IllegalArgumentException {
+        super(pi4j);
+        if (!(gamma > 0)) throw new IllegalArgumentException("The gamma must be more than 0!");
+        this.table = gamma == defaultGamma ? defaultTable : table(gamma);
+        this.pin = new PwmPin(pi4j,pin,frequency);
+        write(0);
+    }
+
+    private static float[] table(final double gamma) {
+        final float[] table = new float[256];
+        for (int i = 0; i < table.length; i++) table[i] = (float) (100 * Math.pow(i / 255d, gamma));
+        return table;
+    }
+
+    private float toDutyCycle(final double brightness) {
+        final double position = brightness * 255;
+        final int index = (int) position;
+        if (index >= 255) return table[255];
+        final double fraction = position - index;
+        return (float) (table[index] + (table[index + 1] - table[index]) * fraction);
+    }
+
+    private void write(final double brightness) {
+        this.brightness = brightness;
+        final float dutyCycle = toDutyCycle(brightness);
+        if (dutyCycle == this.dutyCycle) {
+            skippedWrites++;
+            return;
+        }
+        this.dutyCycle = dutyCycle;
+        if (dutyCycle == 0) pin.off();
+        else pin.on(dutyCycle);
+    }
+
+    /**
+     * Set the brightness, stopping any crossfade in progress.
+     *
+     * @param brightness The brightness, between 0 and 1.
+     * @throws IllegalArgumentException If the brightness is not between 0 and 1.
+     */
+    public synchronized void brightness(final double brightness) throws IllegalArgumentException {
+        if (!(brightness >= 0 && brightness <= 1)) throw new IllegalArgumentException("The brightness must be between 0 and 1!");
+        stopFade();
+        write(brightness);
+    }
+
+    /**
+     * Set the brightness as an 8-bit level, stopping any crossfade in progress.
+     *
+     * @param level The brightness, between 0 and 255.
+     * @throws IllegalArgumentException If the level is not between 0 and 255.
+     */
+    public synchronized void brightness(final int level) throws IllegalArgumentException {
+        if (level < 0 || level > 255) throw new IllegalArgumentException("The brightness level must be between 0 and 255!");
+        stopFade();
+        write(level / 255d);
+    }
+
+    /**
+     * @return The current brightness, between 0 and 1.
+     */
+    public synchronized double brightness() {
+        return brightness;
+    }
+
+    /**
+     * @return The current brightness as an 8-bit level, between 0 and 255.
+     */
+    public synchronized int brightnessLevel() {
+        return (int) Math.round(brightness * 255);
+    }
+
+    public void on() {
+        brightness(1d);
+    }
+
+    public void off() {
+        brightness(0d);
+    }
+
+    public synchronized boolean isOn() {
+        return brightness > 0;
+    }
+
+    public synchronized boolean isOff() {
+        return brightness == 0;
+    }
+
+    /**
+     * Fade from the current brightness to the target brightness, at {@link #defaultFadeHz}.
+     */
+    public void fadeTo(final double brightness, final long duration, @NotNull final TimeUnit unit) throws IllegalArgumentException {
+        fadeTo(brightness,duration,unit,defaultFadeHz);
+    }
+
+    /**
+     * Fade from the current brightness to the target brightness. The fade is linear in brightness,
+     * and therefore looks even to the eye. Replaces any crossfade in progress.
+     *
+     * @param brightness The target brightness, between 0 and 1.
+     * @param duration   The duration of the fade.
+     * @param unit       The unit of the duration.
+     * @param hz         The rate at which the brightness is updated.
+     * @throws IllegalArgumentException If the brightness is not between 0 and 1, or the rate is not positive.
+     */
+    public synchronized void fadeTo(final double brightness, final long duration, @NotNull final TimeUnit unit, final int hz) throws IllegalArgumentException {
+        if (!(brightness >= 0 && brightness <= 1)) throw new IllegalArgumentException("The brightness must be between 0 and 1!");
+        else if (hz < 1) throw new IllegalArgumentException("The fade rate must be at least 1!");
+        stopFade();
+        final long period = TimeUnit.SECONDS.toNanos(1) / hz;
+        fadeSteps = (int) Math.min(Integer.MAX_VALUE, unit.toNanos(duration) / period);
+        if (fadeSteps < 1) {
+            write(brightness);
+            return;
+        }
+        fadeFrom = this.brightness;
+        fadeTo = brightness;
+        fadeStep = 0;
+        fade = ActuationScheduler.scheduleAtFixedRate(this::step,period,period,TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void step() {
+        if (fade == null) return;
+        fadeStep++;
+        if (fadeStep >= fadeSteps) {
+            stopFade();
+            write(fadeTo);
+            return;
+        }
+        write(fadeFrom + (fadeTo - fadeFrom) * fadeStep / fadeSteps);
+    }
+
+    private void stopFade() {
+        if (fade != null) fade.cancel();
+        fade = null;
+    }
+
+    /**
+     * Stop the crossfade in progress, holding the current brightness.
+     */
+    public synchronized void stopFading() {
+        stopFade();
+    }
+
+    public synchronized boolean isFading() {
+        return fade != null;
+    }
+
+    /**
+     * @return The duty cycle last written to the pin.
+     */
+    public synchronized float getDutyCycle() {
+        return dutyCycle;
+    }
+
+    /**
+     * @return The number of writes skipped because they would not have changed the duty cycle.
+     */
+    public synchronized long getSkippedWrites() {
+        return skippedWrites;
+    }
+
+    public PwmPin getPin() {
+        return pin;
+    }
+
+    /**
+     * Stop the crossfade in progress, turn the LED off, and close its pin.
+     */
+    @Override
+    public synchronized void close() {
+        stopFade();
+        brightness = 0;
+        pin.close();
+    }
+}
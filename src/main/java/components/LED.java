@@ -4,7 +4,8 @@ import com.pi4j.context.Context;
 import components.base.Component;
 import components.base.pins.components.PinIdentifier;
 import components.base.pins.digital.DigitalOutputPin;
-import components.servo.Servo;
+import components.pattern.LedPattern;
+import components.pattern.LedPatternEngine;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.concurrent.TimeUnit;
@@ -16,7 +17,6 @@ public class LED extends Component {
 
     public LED(@NotNull final Context pi4j, @NotNull final PinIdentifier pin) {
         this(pi4j,pin,false);
-        Servo.builder(pi4j, Servo.Driver.NO_DRIVER)
     }
 
     public LED(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, final boolean alwaysOn) {
@@ -41,9 +41,7 @@ public class LED extends Component {
     }
 
     public boolean toggle() {
-        if(isOn()) off();
-        else on();
-        return isOn();
+        return pin.toggle();
     }
 
     public void blink(final int interval, @NotNull final TimeUnit unit) {
@@ -66,6 +64,36 @@ public class LED extends Component {
         off();
     }
 
+    /**
+     * Play a pattern on the shared {@link LedPatternEngine}, in phase with every other LED playing the same pattern.
+     * Replaces any pattern already playing.
+     * @param pattern The pattern.
+     */
+    public void play(@NotNull final LedPattern pattern) {
+        LedPatternEngine.shared().play(pin,pattern);
+    }
+
+    /**
+     * Play a pattern on the shared {@link LedPatternEngine}. Replaces any pattern already playing.
+     * @param pattern The pattern.
+     * @param phase The fraction of the pattern the LED is ahead of other LEDs playing it, between 0 and 1.
+     * @param loop True if the pattern should repeat until stopped, otherwise false.
+     */
+    public void play(@NotNull final LedPattern pattern, final double phase, final boolean loop) {
+        LedPatternEngine.shared().play(pin,pattern,phase,loop);
+    }
+
+    /**
+     * Stop the pattern playing on the LED, leaving it in its current state.
+     */
+    public void stopPattern() {
+        LedPatternEngine.shared().stop(pin);
+    }
+
+    public DigitalOutputPin getPin() {
+        return pin;
+    }
+
     public void pulse(final int interval, @NotNull final TimeUnit unit) {
         pin.getPin().pulse(interval,unit);
     }
@@ -85,4 +113,14 @@ public class LED extends Component {
     public void pulseOff() {
         off();
     }
+
+    /**
+     * Stop the pattern playing on the LED, turn it off, and close its pin.
+     */
+    @Override
+    public void close() {
+        if (pin.isClosed()) return;
+        stopPattern();
+        pin.close();
+    }
 }
@@ -2,7 +2,13 @@ package components.base;
 
 import com.pi4j.context.Context;
 
-public abstract class Component {
+/**
+ * Base class of all components.<br>
+ * A component owns the pins it creates. Closing it stops anything it has running, drives its outputs
+ * to a safe state, and closes its pins, leaving the Pi4J Context running.
+ * @see ComponentRegistry
+ */
+public abstract class Component implements AutoCloseable {
 
     protected final Context pi4j;
 
@@ -10,4 +16,9 @@ public abstract class Component {
         this.pi4j = pi4j;
     }
 
+    /**
+     * Close the component, and every pin it owns. Closing a closed component does nothing.
+     */
+    @Override
+    public abstract void close();
 }
@@ -0,0 +1,103 @@
+package components.base;
+
+import components.base.pins.Pin;
+import components.servo.Servo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A set of {@link Component components}, {@link Pin pins}, {@link Servo servos}, or anything else which can be closed,
+ * torn down together.<br>
+ * Closing the registry closes everything registered with it in parallel, on a virtual thread each, so tearing down
+ * takes as long as the slowest component, rather than all of them together. Every component drives its outputs to
+ * a safe state and releases its pins, so the same pins can be claimed again as soon as the registry has been closed.
+ * @apiNote The registry is emptied when closed, and can be reused, for instance to reload a device configuration.
+ */
+@SuppressWarnings("unused")
+public final class ComponentRegistry implements AutoCloseable {
+
+    public static final long defaultTimeoutMillis = 5000;
+
+    private final List<AutoCloseable> closeables = new ArrayList<>();
+
+    /**
+     * Register something to be closed along with the registry.
+     * @param closeable The component, pin, servo or other closeable.
+     * @return The closeable, for chaining with its creation.
+     */
+    public synchronized <T extends AutoCloseable> @NotNull T register(@NotNull final T closeable) {
+        closeables.add(closeable);
+        return closeable;
+    }
+
+    /**
+     * @param closeable The closeable.
+     * @return True if the closeable was registered, otherwise false.
+     */
+    public synchronized boolean unregister(@NotNull final AutoCloseable closeable) {
+        return closeables.remove(closeable);
+    }
+
+    public synchronized int size() {
+        return closeables.size();
+    }
+
+    /**
+     * Close everything registered, in parallel, and wait for it to finish.
+     * Everything is closed even if some of it fails.
+     *
+     * @param timeout The longest time to wait.
+     * @param unit    The unit of the timeout.
+     * @throws IllegalStateException If anything failed to close, with the failures attached as suppressed exceptions,
+     *                               or did not close in time.
+     */
+    public void close(final long timeout, @NotNull final TimeUnit unit) throws IllegalStateException {
+        final List<AutoCloseable> closing;
+        synchronized (this) {
+            closing = new ArrayList<>(closeables);
+            closeables.clear();
+        }
+        if (closing.isEmpty()) return;
+
+        final List<Exception> failures = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(closing.size());
+        for (final AutoCloseable closeable : closing) {
+            Thread.ofVirtual().name("rpi-close").start(() -> {
+                try {
+                    closeable.close();
+                } catch (final Exception exception) {
+                    failures.add(exception);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        try {
+            if (!done.await(timeout,unit)) throw new IllegalStateException("%d of %d components did not close within %d %s!".formatted(done.getCount(),closing.size(),timeout,unit));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing components!",exception);
+        }
+        if (failures.isEmpty()) return;
+        final IllegalStateException exception = new IllegalStateException("Failed to close %d of %d components!".formatted(failures.size(),closing.size()));
+        synchronized (failures) {
+            for (final Exception failure : failures) exception.addSuppressed(failure);
+        }
+        throw exception;
+    }
+
+    /**
+     * Close everything registered, in parallel, waiting at most {@link #defaultTimeoutMillis}.
+     * @throws IllegalStateException If anything failed to close, or did not close in time.
+     */
+    @Override
+    public void close() throws IllegalStateException {
+        close(defaultTimeoutMillis,TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,103 @@
+package components.base.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with log-linear buckets in the style of HdrHistogram.<br>
+ * Values below 16 nanoseconds get a bucket each. Above that, every power of two is split into 16 buckets,
+ * so any recorded value is reported within about 6% of its true value, from nanoseconds up to centuries,
+ * in a fixed 960 buckets. Recording is a handful of bit operations and two atomic increments, and never allocates.
+ */
+@SuppressWarnings("unused")
+public final class LatencyHistogram {
+
+    private static final int subBucketBits = 4;
+    private static final int subBuckets = 1 << subBucketBits;
+    private static final int buckets = (64 - subBucketBits) * subBuckets;
+
+    private final AtomicLongArray counts = new AtomicLongArray(buckets);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    static int index(final long value) {
+        if (value < subBuckets) return (int) value;
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return (exponent - subBucketBits + 1) * subBuckets + (int) (value >>> exponent - subBucketBits & subBuckets - 1);
+    }
+
+    static long lowerBound(final int index) {
+        if (index < subBuckets) return index;
+        final int exponent = index / subBuckets + subBucketBits - 1;
+        return (long) (subBuckets + index % subBuckets) << exponent - subBucketBits;
+    }
+
+    /**
+     * Record a duration. Negative durations are recorded as 0.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+        if (value > maximum.get()) maximum.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return The largest recorded duration, in nanoseconds.
+     */
+    public long getMaximum() {
+        return maximum.get();
+    }
+
+    /**
+     * @return The mean recorded duration, in nanoseconds.
+     */
+    public double getMean() {
+        final long count = this.count.sum();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * @return The sum of all recorded durations, in nanoseconds.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Get the duration below which the given fraction of all recorded durations fall.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @return The duration in nanoseconds, or 0 if nothing has been recorded.
+     * @throws IllegalArgumentException If the quantile is not between 0 and 1.
+     */
+    public long getQuantile(final double quantile) throws IllegalArgumentException {
+        if (!(quantile >= 0 && quantile <= 1)) throw new IllegalArgumentException("The quantile must be between 0 and 1!");
+        long total = 0;
+        for (int i = 0; i < buckets; i++) total += counts.get(i);
+        if (total == 0) return 0;
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < buckets; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(lowerBound(i), getMaximum());
+        }
+        return getMaximum();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets; i++) counts.set(i, 0);
+        count.reset();
+        sum.reset();
+        maximum.set(0);
+    }
+}
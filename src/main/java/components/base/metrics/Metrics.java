@@ -0,0 +1,136 @@
+package components.base.metrics;
+
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Opt-in instrumentation of the library's hot paths.<br>
+ * Metrics are enabled by starting the JVM with <code>-Drpi.metrics=true</code>.
+ * <li><b>Pins:</b> Every pin counts its reads, writes and skipped writes, and records the time spent
+ * in the Pi4J provider, see {@link PinMetrics}.</li>
+ * <li><b>Servos:</b> Delayed servo commands record how late they ran, see {@link #getSchedulingLateness()}.</li>
+ * Everything can be exported with {@link #snapshot()} or {@link #toPrometheus()}.
+ * @apiNote Every instrumentation point is guarded by {@link #enabled}, which is a static final constant.
+ * When metrics are disabled, the JIT removes the instrumentation entirely.
+ */
+@SuppressWarnings("unused")
+public final class Metrics {
+
+    public static final String property = "rpi.metrics";
+    public static final boolean enabled = Boolean.getBoolean(property);
+
+    private static final double[] quantiles = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] quantileNames = {"p50", "p90", "p99", "p999"};
+
+    private static final AtomicReferenceArray<PinMetrics> pins = new AtomicReferenceArray<>(PinIdentifier.values().length);
+    private static final LatencyHistogram schedulingLateness = new LatencyHistogram();
+
+    private Metrics() {}
+
+    /**
+     * Get the metrics of a pin, creating them on first use.
+     * @param pin The pin.
+     * @return The metrics of the pin.
+     */
+    public static @NotNull PinMetrics pin(@NotNull final PinIdentifier pin) {
+        final PinMetrics metrics = pins.get(pin.ordinal());
+        if (metrics != null) return metrics;
+        pins.compareAndSet(pin.ordinal(),null,new PinMetrics(pin));
+        return pins.get(pin.ordinal());
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The metrics of the pin, or null if nothing has been recorded for it.
+     */
+    public static @Nullable PinMetrics getPin(@NotNull final PinIdentifier pin) {
+        return pins.get(pin.ordinal());
+    }
+
+    /**
+     * @return The time between the moment a delayed servo command was due, and the moment it ran.
+     */
+    public static @NotNull LatencyHistogram getSchedulingLateness() {
+        return schedulingLateness;
+    }
+
+    /**
+     * Reset every metric to zero.
+     */
+    public static void reset() {
+        for (int i = 0; i < pins.length(); i++) {
+            final PinMetrics metrics = pins.get(i);
+            if (metrics != null) metrics.reset();
+        }
+        schedulingLateness.reset();
+    }
+
+    private static void put(@NotNull final Map<String,Number> map, @NotNull final String prefix, @NotNull final LatencyHistogram histogram) {
+        map.put(prefix + ".count",histogram.getCount());
+        map.put(prefix + ".mean",histogram.getMean());
+        for (int i = 0; i < quantiles.length; i++) map.put(prefix + "." + quantileNames[i],histogram.getQuantile(quantiles[i]));
+        map.put(prefix + ".max",histogram.getMaximum());
+    }
+
+    /**
+     * Take a snapshot of every metric. Durations are in nanoseconds.<br>
+     * Pins are keyed by their physical number, such as <code>pin.12.writes</code> and <code>pin.12.latency.p99</code>,
+     * and the servo scheduling lateness by <code>servo.lateness</code>.
+     * Pins nothing has been recorded for are left out.
+     * @return An ordered, modifiable map of metric names to values.
+     */
+    public static @NotNull Map<String,Number> snapshot() {
+        final Map<String,Number> map = new LinkedHashMap<>();
+        for (int i = 0; i < pins.length(); i++) {
+            final PinMetrics metrics = pins.get(i);
+            if (metrics == null) continue;
+            final String prefix = "pin." + metrics.getIdentifier().getPin();
+            map.put(prefix + ".reads",metrics.getReads());
+            map.put(prefix + ".writes",metrics.getWrites());
+            map.put(prefix + ".skipped_writes",metrics.getSkippedWrites());
+            put(map,prefix + ".latency",metrics.getLatency());
+        }
+        put(map,"servo.lateness",schedulingLateness);
+        return map;
+    }
+
+    private static void summary(@NotNull final StringBuilder builder, @NotNull final String name, @NotNull final String labels, @NotNull final LatencyHistogram histogram) {
+        final String separator = labels.isEmpty() ? "" : ",";
+        for (final double quantile : quantiles) builder.append("%s{%s%squantile=\"%s\"} %s\n".formatted(name,labels,separator,quantile,seconds(histogram.getQuantile(quantile))));
+        final String braces = labels.isEmpty() ? "" : "{" + labels + "}";
+        builder.append("%s_sum%s %s\n".formatted(name,braces,seconds(histogram.getSum())));
+        builder.append("%s_count%s %d\n".formatted(name,braces,histogram.getCount()));
+    }
+
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    /**
+     * Export every metric in the Prometheus text exposition format. Durations are in seconds, as Prometheus expects.
+     * @return The metrics as text.
+     */
+    public static @NotNull String toPrometheus() {
+        final StringBuilder reads = new StringBuilder("# TYPE rpi_pin_reads_total counter\n");
+        final StringBuilder writes = new StringBuilder("# TYPE rpi_pin_writes_total counter\n");
+        final StringBuilder skipped = new StringBuilder("# TYPE rpi_pin_skipped_writes_total counter\n");
+        final StringBuilder latency = new StringBuilder("# TYPE rpi_pin_provider_latency_seconds summary\n");
+        for (int i = 0; i < pins.length(); i++) {
+            final PinMetrics metrics = pins.get(i);
+            if (metrics == null) continue;
+            final String labels = "pin=\"%d\"".formatted(metrics.getIdentifier().getPin());
+            reads.append("rpi_pin_reads_total{%s} %d\n".formatted(labels,metrics.getReads()));
+            writes.append("rpi_pin_writes_total{%s} %d\n".formatted(labels,metrics.getWrites()));
+            skipped.append("rpi_pin_skipped_writes_total{%s} %d\n".formatted(labels,metrics.getSkippedWrites()));
+            summary(latency,"rpi_pin_provider_latency_seconds",labels,metrics.getLatency());
+        }
+        final StringBuilder lateness = new StringBuilder("# TYPE rpi_servo_schedule_lateness_seconds summary\n");
+        summary(lateness,"rpi_servo_schedule_lateness_seconds","",schedulingLateness);
+        return reads.append(writes).append(skipped).append(latency).append(lateness).toString();
+    }
+}
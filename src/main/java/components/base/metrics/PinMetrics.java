@@ -0,0 +1,79 @@
+package components.base.metrics;
+
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and provider latency of a single pin. Shared by every pin created on the same {@link PinIdentifier},
+ * so the numbers survive a pin being closed and created again.
+ */
+@SuppressWarnings("unused")
+public final class PinMetrics {
+
+    private final PinIdentifier identifier;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder skippedWrites = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    PinMetrics(@NotNull final PinIdentifier identifier) {
+        this.identifier = identifier;
+    }
+
+    /**
+     * Record a read which went through the provider.
+     * @param startNanos The {@link System#nanoTime()} taken right before the provider was called.
+     */
+    public void read(final long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+        reads.increment();
+    }
+
+    /**
+     * Record a write which went through the provider.
+     * @param startNanos The {@link System#nanoTime()} taken right before the provider was called.
+     */
+    public void write(final long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+        writes.increment();
+    }
+
+    /**
+     * Record a write which was skipped, never reaching the provider.
+     */
+    public void skip() {
+        skippedWrites.increment();
+    }
+
+    public @NotNull PinIdentifier getIdentifier() {
+        return identifier;
+    }
+
+    public long getReads() {
+        return reads.sum();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public long getSkippedWrites() {
+        return skippedWrites.sum();
+    }
+
+    /**
+     * @return The time spent in the provider by every read and write.
+     */
+    public @NotNull LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public void reset() {
+        reads.reset();
+        writes.reset();
+        skippedWrites.reset();
+        latency.reset();
+    }
+}
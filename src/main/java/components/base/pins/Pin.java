@@ -2,33 +2,107 @@ package components.base.pins;
 
 import com.pi4j.context.Context;
 import com.pi4j.exception.ShutdownException;
+import com.pi4j.io.IO;
+import components.base.metrics.Metrics;
+import components.base.metrics.PinMetrics;
 import components.base.pins.components.PinIdentifier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static components.base.pins.components.PinType.*;
 
+/**
+ * Base class of all pins.<br>
+ * A pin claims its {@link PinIdentifier} from the {@link PinRegistry} when created, and holds it until closed.
+ * Closing a pin drives it to a safe state, shuts down its own Pi4J I/O while leaving the Context and every other
+ * I/O running, and releases the claim, so the pin can be created again.<br>
+ * The claim is held by the pin's {@link Owner}, rather than the pin itself, so a pin never hands itself out
+ * before it is fully constructed.
+ */
 @SuppressWarnings("unused")
-public abstract class Pin {
+public abstract class Pin implements AutoCloseable {
 
-    private static final Set<PinIdentifier> activePins = new HashSet<>();
+    /**
+     * The token a pin claims its {@link PinIdentifier} and hardware PWM channel under.
+     */
+    public static final class Owner {
+
+        private volatile Pin pin;
 
+        private Owner() {}
+
+        /**
+         * @return The pin holding the claim.
+         */
+        public @NotNull Pin getPin() {
+            return pin;
+        }
+    }
+
+    protected final Owner owner = new Owner();
     protected final Context pi4j;
     protected final PinIdentifier identifier;
+    /**
+     * The metrics of the pin, or null when {@link Metrics#enabled metrics} are disabled.
+     */
+    protected final @Nullable PinMetrics metrics;
+    private final AtomicBoolean closed = new AtomicBoolean();
 
     protected Pin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin) throws IllegalStateException, IllegalArgumentException {
-        if (!isPinAvailable(pin)) throw new IllegalStateException("Failed to initiate Pin %d. Pin is already in use!".formatted(pin.getPin()));
-        else if (!isPinLegal(pin)) throw new IllegalArgumentException("Failed to initiate Pin %d. Pin is not configurable!".formatted(pin.getPin()));
+        if (!isPinLegal(pin)) throw new IllegalArgumentException("Failed to initiate Pin %d. Pin is not configurable!".formatted(pin.getPin()));
+        else if (!PinRegistry.claim(pin,owner)) throw new IllegalStateException("Failed to initiate Pin %d. Pin is already in use!".formatted(pin.getPin()));
         this.pi4j = pi4j;
         this.identifier = pin;
-        activePins.add(this.identifier);
+        this.metrics = Metrics.enabled ? Metrics.pin(pin) : null;
+        this.owner.pin = this;
     }
 
+    /**
+     * @deprecated This used to shut down the whole Pi4J Context. Use {@link #close()}, which only shuts down the pin's own I/O.
+     */
+    @Deprecated
     protected void destroy(@NotNull final Pin instance) throws ShutdownException {
-        instance.pi4j.shutdown();
-        activePins.remove(instance.identifier);
+        instance.close();
+    }
+
+    /**
+     * Drive the pin to a safe state, and shut down its Pi4J I/O. Called once, when the pin is closed.
+     * @throws ShutdownException If Pi4J fails to shut down the I/O.
+     */
+    protected abstract void shutdown() throws ShutdownException;
+
+    /**
+     * Shut down a single Pi4J I/O, leaving the Context and every other I/O running.
+     * @param io The I/O.
+     * @throws ShutdownException If Pi4J fails to shut down the I/O.
+     */
+    protected void shutdown(@NotNull final IO<?,?,?> io) throws ShutdownException {
+        if (pi4j.registry().exists(io.id())) pi4j.shutdown(io.id());
+    }
+
+    /**
+     * Close the pin. The pin is driven to a safe state, its Pi4J I/O is shut down, and it is released
+     * from the {@link PinRegistry}, even if shutting down fails. Closing a closed pin does nothing.
+     * @throws ShutdownException If Pi4J fails to shut down the I/O.
+     */
+    @Override
+    public void close() throws ShutdownException {
+        if (!closed.compareAndSet(false,true)) return;
+        try {
+            shutdown();
+        } finally {
+            PinRegistry.release(identifier,owner);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public PinIdentifier getIdentifier() {
+        return identifier;
     }
 
     /**
@@ -38,7 +112,7 @@ public abstract class Pin {
      * @return True | False
      */
     public static boolean isPinAvailable(@NotNull final PinIdentifier pin) {
-        return !activePins.contains(pin);
+        return !PinRegistry.isClaimed(pin);
     }
 
     /**
@@ -50,4 +124,42 @@ public abstract class Pin {
     public static boolean isPinLegal(@NotNull final PinIdentifier pin) {
         return pin.getType() == GPIO;
     }
+
+    /**
+     * Close every pin created so far, when creating a component fails part way through.
+     * Every pin is closed even if closing some of them fails, in which case the failures are attached to the cause.
+     *
+     * @param cause  The failure being cleaned up after.
+     * @param groups The pins, any of which may be null if they were never created.
+     */
+    public static void closeAll(@NotNull final Throwable cause, @NotNull final Pin[]... groups) {
+        for (final Pin[] pins : groups) for (final Pin pin : pins) {
+            if (pin == null) continue;
+            try {
+                pin.close();
+            } catch (final RuntimeException exception) {
+                cause.addSuppressed(exception);
+            }
+        }
+    }
+
+    /**
+     * Close every pin, even if closing some of them fails.
+     *
+     * @param groups The pins, any of which may be null if they were never created.
+     * @throws RuntimeException The first failure to close a pin, with every further failure attached to it.
+     */
+    public static void closeAll(@NotNull final Pin[]... groups) throws RuntimeException {
+        RuntimeException failure = null;
+        for (final Pin[] pins : groups) for (final Pin pin : pins) {
+            if (pin == null) continue;
+            try {
+                pin.close();
+            } catch (final RuntimeException exception) {
+                if (failure == null) failure = exception;
+                else failure.addSuppressed(exception);
+            }
+        }
+        if (failure != null) throw failure;
+    }
 }
\ No newline at end of file
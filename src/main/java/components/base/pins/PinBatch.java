@@ -0,0 +1,421 @@
+package components.base.pins;
+
+import com.pi4j.context.Context;
+import components.base.ComponentRegistry;
+import components.base.pins.analog.AnalogInputPin;
+import components.base.pins.analog.AnalogOutputPin;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.digital.DigitalInputPin;
+import components.base.pins.digital.DigitalOutputPin;
+import components.base.pins.pwm.PwmAllocator;
+import components.base.pins.pwm.PwmPin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A set of pins, declared up front, validated as a whole, and created together.<br>
+ * Every pin is declared on the {@link Builder} first. Building validates the whole set before anything is created,
+ * reporting every problem at once, rather than failing at the first pin after others have already been claimed.
+ * <li><b>Parallel:</b> By default, the pins are created in parallel, on a virtual thread each,
+ * so booting with many pins is not bound by the time Pi4J takes to create each one in turn.</li>
+ * <li><b>Lazy:</b> Alternatively, every pin is created the first time it is requested from the batch,
+ * spreading the cost over the first use of each pin. Pins are only claimed when created,
+ * so a lazy batch cannot guarantee that a pin is still available by the time it is first used.</li>
+ * Pins sharing a hardware PWM channel are validated in declaration order by a {@link PinValidator}, the first holding
+ * the channel, and the others falling back to software PWM. Whether parallel or lazy, the first is always created first.<br>
+ * The time taken to create every pin is recorded, see {@link #report()}.
+ * The batch owns its pins, and closes them all, in parallel, when closed.
+ */
+@SuppressWarnings("unused")
+public final class PinBatch implements AutoCloseable {
+
+    public enum Kind {
+        DIGITAL_OUTPUT,
+        DIGITAL_INPUT,
+        ANALOG_OUTPUT,
+        ANALOG_INPUT,
+        PWM
+    }
+
+    /**
+     * @param option Whether a digital output is always on, or whether an analog pin has an external DAC chip.
+     */
+    private record Entry(@NotNull PinIdentifier pin, @NotNull Kind kind, @Nullable Integer minimum, @Nullable Integer maximum, boolean option, int frequency) {}
+
+    private final Context pi4j;
+    private final Map<PinIdentifier,Entry> entries;
+    private final Map<Integer,PinIdentifier> channels = new HashMap<>();
+    private final AtomicReferenceArray<Pin> pins = new AtomicReferenceArray<>(PinIdentifier.values().length);
+    private final AtomicLongArray timings = new AtomicLongArray(PinIdentifier.values().length);
+    private final ComponentRegistry registry = new ComponentRegistry();
+    private volatile boolean closed = false;
+    private long buildNanos = 0;
+
+    private PinBatch(@NotNull final Context pi4j, @NotNull final Map<PinIdentifier,Entry> entries) {
+        this.pi4j = pi4j;
+        this.entries = entries;
+        for (final Entry entry : entries.values()) {
+            final int channel = PwmAllocator.getChannel(entry.pin());
+            if (entry.kind() == Kind.PWM && channel >= 0) channels.putIfAbsent(channel,entry.pin());
+        }
+        for (int i = 0; i < timings.length(); i++) timings.set(i, -1);
+    }
+
+    public static @NotNull Builder builder(@NotNull final Context pi4j) {
+        return new Builder(pi4j);
+    }
+
+    private void createAll(final boolean parallel) throws IllegalStateException {
+        final long start = System.nanoTime();
+        final List<Exception> failures = new ArrayList<>();
+        if (parallel) {
+            try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                final List<Future<Pin>> futures = new ArrayList<>(entries.size());
+                for (final Entry entry : entries.values()) futures.add(executor.submit(() -> get(entry.pin(),entry.kind())));
+                for (final Future<Pin> future : futures) {
+                    try {
+                        future.get();
+                    } catch (final ExecutionException exception) {
+                        failures.add(exception.getCause() instanceof Exception cause ? cause : exception);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        failures.add(exception);
+                        break;
+                    }
+                }
+            }
+        } else {
+            for (final Entry entry : entries.values()) {
+                try {
+                    get(entry.pin(),entry.kind());
+                } catch (final RuntimeException exception) {
+                    failures.add(exception);
+                }
+            }
+        }
+        buildNanos = System.nanoTime() - start;
+        if (failures.isEmpty()) return;
+
+        final IllegalStateException exception = new IllegalStateException("Failed to create %d of %d pins!".formatted(failures.size(),entries.size()));
+        for (final Exception failure : failures) exception.addSuppressed(failure);
+        try {
+            close();
+        } catch (final IllegalStateException closing) {
+            exception.addSuppressed(closing);
+        }
+        throw exception;
+    }
+
+    private @NotNull Pin get(@NotNull final PinIdentifier pin, @NotNull final Kind kind) throws IllegalArgumentException, IllegalStateException {
+        final Entry entry = entries.get(pin);
+        if (entry == null || entry.kind() != kind) throw new IllegalArgumentException("Pin %d is not declared as %s in the batch!".formatted(pin.getPin(),kind));
+        else if (closed) throw new IllegalStateException("The batch has been closed!");
+        final Pin existing = pins.get(pin.ordinal());
+        if (existing != null) return existing;
+        if (kind == Kind.PWM) {
+            // The pin declared first on a shared hardware channel was validated as holding it, so it must be created first.
+            final PinIdentifier holder = channels.get(PwmAllocator.getChannel(pin));
+            if (holder != null && holder != pin) get(holder,Kind.PWM);
+        }
+        synchronized (entry) {
+            if (closed) throw new IllegalStateException("The batch has been closed!");
+            final Pin created = pins.get(pin.ordinal());
+            if (created != null) return created;
+            final long start = System.nanoTime();
+            final Pin result = switch (kind) {
+                case DIGITAL_OUTPUT -> new DigitalOutputPin(pi4j,pin,entry.option());
+                case DIGITAL_INPUT -> new DigitalInputPin(pi4j,pin);
+                case ANALOG_OUTPUT -> new AnalogOutputPin(pi4j,pin,entry.minimum(),entry.maximum(),entry.option());
+                case ANALOG_INPUT -> new AnalogInputPin(pi4j,pin,entry.minimum(),entry.maximum(),entry.option());
+                case PWM -> new PwmPin(pi4j,pin,entry.frequency());
+            };
+            timings.set(pin.ordinal(),System.nanoTime() - start);
+            registry.register(result);
+            pins.set(pin.ordinal(),result);
+            return result;
+        }
+    }
+
+    /**
+     * Get a declared pin, creating it first if the batch is lazy.
+     * @throws IllegalArgumentException If the pin is not declared as the requested kind.
+     * @throws IllegalStateException If the batch has been closed.
+     */
+    public @NotNull DigitalOutputPin digitalOutput(@NotNull final PinIdentifier pin) throws IllegalArgumentException, IllegalStateException {
+        return (DigitalOutputPin) get(pin,Kind.DIGITAL_OUTPUT);
+    }
+
+    /**
+     * @see #digitalOutput(PinIdentifier)
+     */
+    public @NotNull DigitalInputPin digitalInput(@NotNull final PinIdentifier pin) throws IllegalArgumentException, IllegalStateException {
+        return (DigitalInputPin) get(pin,Kind.DIGITAL_INPUT);
+    }
+
+    /**
+     * @see #digitalOutput(PinIdentifier)
+     */
+    public @NotNull AnalogOutputPin analogOutput(@NotNull final PinIdentifier pin) throws IllegalArgumentException, IllegalStateException {
+        return (AnalogOutputPin) get(pin,Kind.ANALOG_OUTPUT);
+    }
+
+    /**
+     * @see #digitalOutput(PinIdentifier)
+     */
+    public @NotNull AnalogInputPin analogInput(@NotNull final PinIdentifier pin) throws IllegalArgumentException, IllegalStateException {
+        return (AnalogInputPin) get(pin,Kind.ANALOG_INPUT);
+    }
+
+    /**
+     * @see #digitalOutput(PinIdentifier)
+     */
+    public @NotNull PwmPin pwm(@NotNull final PinIdentifier pin) throws IllegalArgumentException, IllegalStateException {
+        return (PwmPin) get(pin,Kind.PWM);
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The kind the pin is declared as, or null if it is not part of the batch.
+     */
+    public @Nullable Kind getKind(@NotNull final PinIdentifier pin) {
+        final Entry entry = entries.get(pin);
+        return entry == null ? null : entry.kind();
+    }
+
+    /**
+     * @return Every declared pin, in the order they were declared.
+     */
+    public @NotNull List<PinIdentifier> getPins() {
+        return List.copyOf(entries.keySet());
+    }
+
+    /**
+     * @param pin The pin.
+     * @return True if the pin has been created, otherwise false.
+     */
+    public boolean isCreated(@NotNull final PinIdentifier pin) {
+        return pins.get(pin.ordinal()) != null;
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The time it took to create the pin, in nanoseconds, or -1 if it has not been created.
+     */
+    public long getInitNanos(@NotNull final PinIdentifier pin) {
+        return timings.get(pin.ordinal());
+    }
+
+    /**
+     * @return The time it took to create every pin of the batch, in nanoseconds, or 0 if the batch is lazy.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * @return The time it took to create every created pin, in nanoseconds.
+     */
+    public @NotNull Map<PinIdentifier,Long> getTimings() {
+        final Map<PinIdentifier,Long> result = new EnumMap<>(PinIdentifier.class);
+        for (final PinIdentifier pin : entries.keySet()) {
+            final long nanos = timings.get(pin.ordinal());
+            if (nanos >= 0) result.put(pin,nanos);
+        }
+        return result;
+    }
+
+    /**
+     * @return A human-readable report of the time it took to create every created pin, slowest first.
+     */
+    public @NotNull String report() {
+        final List<Map.Entry<PinIdentifier,Long>> sorted = new ArrayList<>(getTimings().entrySet());
+        sorted.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        long total = 0;
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<PinIdentifier,Long> timing : sorted) {
+            total += timing.getValue();
+            builder.append("%s (%s): %.3f ms\n".formatted(timing.getKey().getName(),entries.get(timing.getKey()).kind(),timing.getValue() / 1e6));
+        }
+        builder.append("Created %d of %d pins, %.3f ms in total".formatted(sorted.size(),entries.size(),total / 1e6));
+        if (buildNanos > 0) builder.append(", %.3f ms elapsed".formatted(buildNanos / 1e6));
+        return builder.append('\n').toString();
+    }
+
+    /**
+     * Close every created pin, in parallel. Pins which have not been created yet will no longer be.
+     * @throws IllegalStateException If any pin failed to close.
+     */
+    @Override
+    public void close() throws IllegalStateException {
+        closed = true;
+        for (final Entry entry : entries.values()) {
+            synchronized (entry) {
+                // Wait for any pin still being created to be registered.
+            }
+        }
+        registry.close();
+    }
+
+    public static final class Builder {
+
+        private final Context pi4j;
+        private final Map<PinIdentifier,Entry> entries = new LinkedHashMap<>();
+        private final List<String> problems = new ArrayList<>();
+        private boolean lazy = false;
+        private boolean parallel = true;
+
+        private Builder(@NotNull final Context pi4j) {
+            this.pi4j = pi4j;
+        }
+
+        private Builder add(@NotNull final Entry entry) {
+            if (entries.putIfAbsent(entry.pin(),entry) != null) problems.add("Pin %d is declared more than once".formatted(entry.pin().getPin()));
+            return this;
+        }
+
+        public Builder digitalOutput(@NotNull final PinIdentifier pin) {
+            return digitalOutput(pin,false);
+        }
+
+        /**
+         * @param pin      The pin.
+         * @param alwaysOn True if the pin should be turned on, and ignore any attempt to turn it off.
+         */
+        public Builder digitalOutput(@NotNull final PinIdentifier pin, final boolean alwaysOn) {
+            return add(new Entry(pin,Kind.DIGITAL_OUTPUT,null,null,alwaysOn,0));
+        }
+
+        public Builder digitalInput(@NotNull final PinIdentifier pin) {
+            return add(new Entry(pin,Kind.DIGITAL_INPUT,null,null,false,0));
+        }
+
+        public Builder analogOutput(@NotNull final PinIdentifier pin) {
+            return analogOutput(pin,null,null,false);
+        }
+
+        /**
+         * @param pin             The pin.
+         * @param minimum         The minimum value, or null for the default.
+         * @param maximum         The maximum value, or null for the default.
+         * @param externalDacChip Whether the Raspberry Pi has an External DAC Chip.
+         * @see AnalogOutputPin#AnalogOutputPin(Context, PinIdentifier, Integer, Integer, boolean)
+         */
+        public Builder analogOutput(@NotNull final PinIdentifier pin, @Nullable final Integer minimum, @Nullable final Integer maximum, final boolean externalDacChip) {
+            return add(new Entry(pin,Kind.ANALOG_OUTPUT,minimum,maximum,externalDacChip,0));
+        }
+
+        public Builder analogInput(@NotNull final PinIdentifier pin) {
+            return analogInput(pin,null,null,false);
+        }
+
+        /**
+         * @see #analogOutput(PinIdentifier, Integer, Integer, boolean)
+         */
+        public Builder analogInput(@NotNull final PinIdentifier pin, @Nullable final Integer minimum, @Nullable final Integer maximum, final boolean externalDacChip) {
+            return add(new Entry(pin,Kind.ANALOG_INPUT,minimum,maximum,externalDacChip,0));
+        }
+
+        /**
+         * @param pin The pin.
+         * @param hz  The initial frequency.
+         */
+        public Builder pwm(@NotNull final PinIdentifier pin, final int hz) {
+            return add(new Entry(pin,Kind.PWM,null,null,false,hz));
+        }
+
+        /**
+         * Declare a pin of any kind, with the default settings of that kind, and a PWM frequency of 50.
+         */
+        public Builder pin(@NotNull final PinIdentifier pin, @NotNull final Kind kind) {
+            return switch (kind) {
+                case DIGITAL_OUTPUT -> digitalOutput(pin);
+                case DIGITAL_INPUT -> digitalInput(pin);
+                case ANALOG_OUTPUT -> analogOutput(pin);
+                case ANALOG_INPUT -> analogInput(pin);
+                case PWM -> pwm(pin,50);
+            };
+        }
+
+        /**
+         * Create every pin the first time it is requested from the batch, rather than when the batch is built.
+         * <br>Default: <code><b>False</b></code>
+         */
+        public Builder lazy(final boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        /**
+         * Create the pins in parallel, on a virtual thread each, rather than one after the other.
+         * Has no effect on a lazy batch.<br>Default: <code><b>True</b></code>
+         */
+        public Builder parallel(final boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        private void validateRange(@NotNull final Entry entry, @NotNull final PinValidator validator) {
+            final int minimum = entry.minimum() == null ? AnalogOutputPin.defaultMinimumValue : entry.minimum();
+            final int maximum = entry.maximum() == null ? entry.option() ? AnalogOutputPin.defaultTwelveBitMaximumValue : AnalogOutputPin.defaultMaximumValue : entry.maximum();
+            validator.range(subject(entry),minimum,maximum,entry.option());
+        }
+
+        private static @NotNull String subject(@NotNull final Entry entry) {
+            return "pin %d".formatted(entry.pin().getPin());
+        }
+
+        /**
+         * Validate every declared pin, without creating anything.
+         * @return Every problem found, or an empty list if the batch can be built.
+         */
+        public @NotNull List<String> validate() {
+            final List<String> result = new ArrayList<>(problems);
+            final PwmAllocator.Board board = PwmAllocator.board();
+            final PinValidator validator = new PinValidator(board,result,new ArrayList<>());
+            // Channels held by pins outside the batch leave the batch's pins on them with software PWM.
+            for (int channel = 0; channel < board.channels(); channel++) {
+                final PinIdentifier holder = PwmAllocator.getHolder(channel);
+                if (holder != null) validator.hold(channel,"pin %d".formatted(holder.getPin()));
+            }
+            for (final Entry entry : entries.values()) {
+                if (!Pin.isPinLegal(entry.pin())) result.add("%s is not a configurable GPIO pin".formatted(entry.pin().getName()));
+                else if (!Pin.isPinAvailable(entry.pin())) result.add("%s is already in use".formatted(entry.pin().getName()));
+                switch (entry.kind()) {
+                    case ANALOG_OUTPUT, ANALOG_INPUT -> validateRange(entry,validator);
+                    case PWM -> validator.pwm(subject(entry),entry.pin(),entry.frequency());
+                    default -> {}
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Validate every declared pin, and create them, unless the batch is lazy.
+         * @return The batch.
+         * @throws IllegalArgumentException If any declared pin is invalid or in use, listing every problem.
+         * @throws IllegalStateException If any pin failed to be created. Every pin already created is closed again.
+         */
+        public @NotNull PinBatch build() throws IllegalArgumentException, IllegalStateException {
+            if (entries.isEmpty()) throw new IllegalArgumentException("A batch requires at least one pin!");
+            final List<String> problems = validate();
+            if (!problems.isEmpty()) throw new IllegalArgumentException("The batch has %d problems: %s!".formatted(problems.size(),String.join("; ",problems)));
+            final PinBatch batch = new PinBatch(pi4j,new LinkedHashMap<>(entries));
+            if (!lazy) batch.createAll(parallel);
+            return batch;
+        }
+    }
+}
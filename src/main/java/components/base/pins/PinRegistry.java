@@ -0,0 +1,128 @@
+package components.base.pins;
+
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Process-wide registry of claimed pins.<br>
+ * Every {@link PinIdentifier} is represented by a single bit (its ordinal) in a 64-bit mask,
+ * which is claimed and released through compare-and-set. This makes claiming a pin atomic, lock-free
+ * and allocation-free, so several threads may construct pins concurrently without ever being able to
+ * claim the same GPIO twice.<br>
+ * Alongside the mask, the registry keeps an owner handle per claimed pin, which can be queried to see
+ * which instance currently holds a given pin.
+ */
+@SuppressWarnings("unused")
+public final class PinRegistry {
+
+    private static final PinIdentifier[] pins = PinIdentifier.values();
+    private static final AtomicLong claimed = new AtomicLong();
+    private static final AtomicReferenceArray<Object> owners = new AtomicReferenceArray<>(pins.length);
+
+    static {
+        if (pins.length > Long.SIZE) throw new IllegalStateException("PinRegistry cannot track more than %d pins!".formatted(Long.SIZE));
+    }
+
+    private PinRegistry() {}
+
+    private static long bit(@NotNull final PinIdentifier pin) {
+        return 1L << pin.ordinal();
+    }
+
+    /**
+     * Attempts to claim the pin for the given owner.
+     *
+     * @param pin   Pin to claim.
+     * @param owner The instance that will hold the pin.
+     * @return True if the pin was claimed, false if it is already held by another owner.
+     */
+    public static boolean claim(@NotNull final PinIdentifier pin, @NotNull final Object owner) {
+        final long bit = bit(pin);
+        long current;
+        do {
+            current = claimed.get();
+            if ((current & bit) != 0) return false;
+        } while (!claimed.compareAndSet(current, current | bit));
+        owners.set(pin.ordinal(), owner);
+        return true;
+    }
+
+    /**
+     * Releases the pin, given that it is currently held by the given owner.
+     *
+     * @param pin   Pin to release.
+     * @param owner The instance currently holding the pin.
+     * @return True if the pin was released, false if the owner did not hold the pin.
+     */
+    public static boolean release(@NotNull final PinIdentifier pin, @NotNull final Object owner) {
+        if (!owners.compareAndSet(pin.ordinal(), owner, null)) return false;
+        final long bit = bit(pin);
+        long current;
+        do {
+            current = claimed.get();
+        } while (!claimed.compareAndSet(current, current & ~bit));
+        return true;
+    }
+
+    /**
+     * Checks if the pin is currently claimed.
+     *
+     * @param pin Pin to check.
+     * @return True | False
+     */
+    public static boolean isClaimed(@NotNull final PinIdentifier pin) {
+        return (claimed.get() & bit(pin)) != 0;
+    }
+
+    /**
+     * Get the instance currently holding the pin. Pins of this library hold their claim through a {@link Pin.Owner}.
+     *
+     * @param pin Pin to look up.
+     * @return The owner, or null if the pin is not claimed.
+     */
+    public static @Nullable Object getOwner(@NotNull final PinIdentifier pin) {
+        return owners.get(pin.ordinal());
+    }
+
+    /**
+     * Get the raw mask of claimed pins, where bit <i>n</i> represents the pin with ordinal <i>n</i>.
+     *
+     * @return The claimed pins as a bit mask.
+     */
+    public static long getClaimedMask() {
+        return claimed.get();
+    }
+
+    /**
+     * Get a snapshot of all currently claimed pins.
+     *
+     * @return A new set containing the claimed pins.
+     */
+    public static @NotNull Set<PinIdentifier> getClaimedPins() {
+        final EnumSet<PinIdentifier> result = EnumSet.noneOf(PinIdentifier.class);
+        long mask = claimed.get();
+        while (mask != 0) {
+            result.add(pins[Long.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Get a snapshot of all pins currently held by the given owner.
+     *
+     * @param owner The owner to look up.
+     * @return A new set containing the pins held by the owner.
+     */
+    public static @NotNull Set<PinIdentifier> getPinsOwnedBy(@NotNull final Object owner) {
+        final EnumSet<PinIdentifier> result = EnumSet.noneOf(PinIdentifier.class);
+        for (int i = 0; i < pins.length; i++) if (owners.get(i) == owner) result.add(pins[i]);
+        return result;
+    }
+}
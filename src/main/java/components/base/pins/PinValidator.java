@@ -0,0 +1,87 @@
+package components.base.pins;
+
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.pwm.PwmAllocator;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates the settings of pins before any of them are created, collecting every problem rather than failing at the first.<br>
+ * The limits are the ones the pins enforce when created. PWM pins are validated against the hardware channels of a board
+ * in the order they are validated: the first pin on a channel holds it, and the others fall back to software PWM,
+ * as the {@link PwmAllocator} does when the pins are created in that order.
+ * @apiNote Every check names the pin by a subject, such as the name of a component, which starts every message.
+ */
+@SuppressWarnings("unused")
+public final class PinValidator {
+
+    public static final int maximumValue = 4095;
+    public static final int maximumValueWithoutDac = 1024;
+    public static final int maximumSoftwareFrequency = 5000;
+    public static final int maximumHardwareFrequency = 100000;
+
+    private final PwmAllocator.Board board;
+    private final List<String> problems;
+    private final List<String> warnings;
+    private final Map<Integer,String> channels = new HashMap<>();
+
+    /**
+     * @param board    The board to validate PWM against.
+     * @param problems Receives every problem found.
+     * @param warnings Receives every warning, for settings which work, but not as well as they could.
+     */
+    public PinValidator(@NotNull final PwmAllocator.Board board, @NotNull final List<String> problems, @NotNull final List<String> warnings) {
+        this.board = board;
+        this.problems = problems;
+        this.warnings = warnings;
+    }
+
+    /**
+     * Mark a hardware PWM channel as held, such as by a pin which has already been created.
+     *
+     * @param channel The hardware PWM channel.
+     * @param holder  The subject holding the channel.
+     */
+    public void hold(final int channel, @NotNull final String holder) {
+        channels.putIfAbsent(channel,holder);
+    }
+
+    /**
+     * Validate the range of an analog pin.
+     *
+     * @param subject     The subject the pin belongs to.
+     * @param minimum     The minimum value.
+     * @param maximum     The maximum value.
+     * @param externalDac Whether the Raspberry Pi has an External DAC Chip.
+     */
+    public void range(@NotNull final String subject, final int minimum, final int maximum, final boolean externalDac) {
+        final int limit = externalDac ? maximumValue : maximumValueWithoutDac;
+        if (minimum < 0) problems.add("The minimum value of %s cannot be less than 0".formatted(subject));
+        if (minimum > limit) problems.add("The minimum value of %s cannot be more than %d".formatted(subject,limit));
+        if (maximum < minimum) problems.add("The maximum value of %s cannot be less than its minimum value".formatted(subject));
+        if (maximum > limit) problems.add("The maximum value of %s cannot be more than %d%s".formatted(subject,limit,externalDac ? "" : " without an external DAC chip"));
+    }
+
+    /**
+     * Validate the frequency of a PWM pin, claiming its hardware channel if it is still free.
+     *
+     * @param subject   The subject the pin belongs to.
+     * @param pin       The pin.
+     * @param frequency The frequency the pin is intended to run at.
+     * @return True if the pin will run hardware PWM, otherwise false.
+     */
+    public boolean pwm(@NotNull final String subject, @NotNull final PinIdentifier pin, final int frequency) {
+        final int channel = board.channelOf(pin);
+        final String holder = channel < 0 ? null : channels.putIfAbsent(channel,subject);
+        final boolean hardware = channel >= 0 && holder == null;
+        if (holder != null) warnings.add("%s shares hardware PWM channel %d with %s, and will fall back to software PWM".formatted(subject,channel,holder));
+        if (frequency < 0) problems.add("The frequency of %s cannot be less than 0".formatted(subject));
+        else if (frequency > maximumHardwareFrequency) problems.add("The frequency of %s cannot exceed %d".formatted(subject,maximumHardwareFrequency));
+        else if (!hardware && frequency > maximumSoftwareFrequency) problems.add("%s runs software PWM on %s, which cannot exceed a frequency of %d".formatted(subject,pin,maximumSoftwareFrequency));
+        else if (!hardware && frequency > PwmAllocator.softwareWarningFrequency) warnings.add("%s runs %d Hz software PWM on %s. Consider GPIO 12, 13, 18 or 19".formatted(subject,frequency,pin));
+        return hardware;
+    }
+}
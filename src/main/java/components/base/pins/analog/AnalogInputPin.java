@@ -3,7 +3,11 @@ package components.base.pins.analog;
 import com.pi4j.context.Context;
 import com.pi4j.io.gpio.analog.AnalogInput;
 import com.pi4j.io.gpio.analog.AnalogInputConfig;
+import components.base.metrics.Metrics;
 import components.base.pins.Pin;
+import components.base.pins.PinRegistry;
+import components.base.pins.PinValidator;
+import components.base.pins.components.PinIdentifier;
 import org.jetbrains.annotations.NotNull;
 
 @SuppressWarnings("unused")
@@ -32,21 +36,24 @@ public class AnalogInputPin extends Pin {
 
     public AnalogInputPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, final Integer minimum, final Integer maximum, final boolean externalDacChip) {
         super(pi4j, pin);
-
         this.externalDac = externalDacChip;
-        this.minimumValue = validateAndReturnMinimumValue(minimum);
-        this.maximumValue = validateAndReturnMaximumValue(maximum);
-
-        this.pin = createPinInstance(pin.getPin());
+        try {
+            this.minimumValue = validateAndReturnMinimumValue(minimum);
+            this.maximumValue = validateAndReturnMaximumValue(maximum);
+            this.pin = createPinInstance(pin);
+        } catch (final RuntimeException exception) {
+            PinRegistry.release(pin,owner);
+            throw exception;
+        }
     }
 
     private int validateAndReturnMinimumValue(final Integer value) throws IllegalArgumentException {
         if (value == null) return defaultMinimumValue;
         else if (value < 0) throw new IllegalArgumentException("Minimum value cannot be less than 0!");
-        else if (value > 4095) throw new IllegalArgumentException("Maximum value cannot be more than 4095!");
+        else if (value > PinValidator.maximumValue) throw new IllegalArgumentException("Maximum value cannot be more than %d!".formatted(PinValidator.maximumValue));
 
         if (externalDac) return value;
-        else if (value > 1024) throw new IllegalArgumentException("Cannot assign a maximum value higher than 1024 if External DAC Chip is not enabled!");
+        else if (value > PinValidator.maximumValueWithoutDac) throw new IllegalArgumentException("Cannot assign a maximum value higher than %d if External DAC Chip is not enabled!".formatted(PinValidator.maximumValueWithoutDac));
         else return value;
     }
 
@@ -54,19 +61,19 @@ public class AnalogInputPin extends Pin {
         if (value == null) return externalDac ? defaultTwelveBitMaximumValue : defaultMaximumValue;
         if (value < minimumValue) throw new IllegalArgumentException("Maximum value cannot be less than minimum value!");
         else if (value < 0) throw new IllegalArgumentException("Minimum value cannot be less than 0!");
-        else if (value > 4095) throw new IllegalArgumentException("Maximum value cannot be more than 4095!");
+        else if (value > PinValidator.maximumValue) throw new IllegalArgumentException("Maximum value cannot be more than %d!".formatted(PinValidator.maximumValue));
 
         if (externalDac) return value;
-        else if (value > 1024) throw new IllegalArgumentException("Cannot assign a maximum value higher than 1024 if External DAC Chip is not enabled!");
+        else if (value > PinValidator.maximumValueWithoutDac) throw new IllegalArgumentException("Cannot assign a maximum value higher than %d if External DAC Chip is not enabled!".formatted(PinValidator.maximumValueWithoutDac));
         else return value;
     }
 
-    private AnalogInput createPinInstance(final int pin) {
+    private AnalogInput createPinInstance(@NotNull final PinIdentifier pin) {
         return pi4j.create(AnalogInputConfig
                 .newBuilder(pi4j)
-                .id("PIN#" + pin)
-                .name("Pin %d".formatted(pin))
-                .address(pin)
+                .id(pin.getId())
+                .name(pin.getName())
+                .address(pin.getPin())
                 .min(minimumValue)
                 .max(maximumValue)
                 .build());
@@ -77,6 +84,44 @@ public class AnalogInputPin extends Pin {
     }
 
     public Number read() {
-        return Math.clamp(pin.getValue().doubleValue(),minimumValue,maximumValue);
+        return readDouble();
+    }
+
+    /**
+     * Read the pin's current value, forced within the minimum and maximum values defined.
+     * Unlike {@link #read()}, the value is returned as a primitive, and is never boxed by this library.
+     * @return The current value.
+     */
+    public int readInt() {
+        return Math.clamp(value(),minimumValue,maximumValue);
+    }
+
+    /**
+     * Read the pin's current value, forced within the minimum and maximum values defined.
+     * Unlike {@link #read()}, the value is returned as a primitive, and is never boxed by this library.
+     * @return The current value.
+     */
+    public double readDouble() {
+        return Math.clamp(value(),(double) minimumValue,maximumValue);
+    }
+
+    private int value() {
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
+        final int value = pin.value();
+        if (Metrics.enabled) metrics.read(start);
+        return value;
+    }
+
+    @Override
+    protected void shutdown() {
+        shutdown(pin);
+    }
+
+    public int getMinimumValue() {
+        return minimumValue;
+    }
+
+    public int getMaximumValue() {
+        return maximumValue;
     }
 }
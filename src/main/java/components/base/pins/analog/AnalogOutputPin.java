@@ -3,11 +3,20 @@ package components.base.pins.analog;
 import com.pi4j.context.Context;
 import com.pi4j.io.gpio.analog.AnalogOutput;
 import com.pi4j.io.gpio.analog.AnalogOutputConfig;
+import components.base.metrics.Metrics;
 import components.base.pins.Pin;
+import components.base.pins.PinRegistry;
+import components.base.pins.PinValidator;
 import components.base.pins.components.PinIdentifier;
+import components.base.scheduling.TimerWheel;
+import components.base.scheduling.Timeout;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 @SuppressWarnings("unused")
 public class AnalogOutputPin extends Pin {
 
@@ -18,6 +27,14 @@ public class AnalogOutputPin extends Pin {
     private final int minimumValue;
     private final int maximumValue;
 
+    private static final int noValue = Integer.MIN_VALUE;
+
+    private final AtomicInteger requested = new AtomicInteger(noValue);
+    private final LongAdder requestedWrites = new LongAdder();
+    private final LongAdder issuedWrites = new LongAdder();
+    private volatile Timeout flusher;
+    private int lastWritten = noValue;
+
     protected final AnalogOutput pin;
 
     public AnalogOutputPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin) {
@@ -62,21 +79,24 @@ public class AnalogOutputPin extends Pin {
      */
     public AnalogOutputPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, @Nullable final Integer minimum, @Nullable final Integer maximum, final boolean externalDacChip) throws IllegalArgumentException {
         super(pi4j,pin);
-
         this.externalDac = externalDacChip;
-        this.minimumValue = validateAndReturnMinimumValue(minimum);
-        this.maximumValue = validateAndReturnMaximumValue(maximum);
-
-        this.pin = createPinInstance(pin.getPin());
+        try {
+            this.minimumValue = validateAndReturnMinimumValue(minimum);
+            this.maximumValue = validateAndReturnMaximumValue(maximum);
+            this.pin = createPinInstance(pin);
+        } catch (final RuntimeException exception) {
+            PinRegistry.release(pin,owner);
+            throw exception;
+        }
     }
 
     private int validateAndReturnMinimumValue(final Integer value) throws IllegalArgumentException {
         if (value == null) return defaultMinimumValue;
         else if (value < 0) throw new IllegalArgumentException("Minimum value cannot be less than 0!");
-        else if (value > 4095) throw new IllegalArgumentException("Maximum value cannot be more than 4095!");
+        else if (value > PinValidator.maximumValue) throw new IllegalArgumentException("Maximum value cannot be more than %d!".formatted(PinValidator.maximumValue));
 
         if (externalDac) return value;
-        else if (value > 1024) throw new IllegalArgumentException("Cannot assign a maximum value higher than 1024 if External DAC Chip is not enabled!");
+        else if (value > PinValidator.maximumValueWithoutDac) throw new IllegalArgumentException("Cannot assign a maximum value higher than %d if External DAC Chip is not enabled!".formatted(PinValidator.maximumValueWithoutDac));
         else return value;
     }
 
@@ -84,19 +104,19 @@ public class AnalogOutputPin extends Pin {
         if (value == null) return externalDac ? defaultTwelveBitMaximumValue : defaultMaximumValue;
         if (value < minimumValue) throw new IllegalArgumentException("Maximum value cannot be less than minimum value!");
         else if (value < 0) throw new IllegalArgumentException("Minimum value cannot be less than 0!");
-        else if (value > 4095) throw new IllegalArgumentException("Maximum value cannot be more than 4095!");
+        else if (value > PinValidator.maximumValue) throw new IllegalArgumentException("Maximum value cannot be more than %d!".formatted(PinValidator.maximumValue));
 
         if (externalDac) return value;
-        else if (value > 1024) throw new IllegalArgumentException("Cannot assign a maximum value higher than 1024 if External DAC Chip is not enabled!");
+        else if (value > PinValidator.maximumValueWithoutDac) throw new IllegalArgumentException("Cannot assign a maximum value higher than %d if External DAC Chip is not enabled!".formatted(PinValidator.maximumValueWithoutDac));
         else return value;
     }
 
-    private AnalogOutput createPinInstance(final int pin) {
+    private AnalogOutput createPinInstance(@NotNull final PinIdentifier pin) {
         return pi4j.create(AnalogOutputConfig
                 .newBuilder(pi4j)
-                .id("PIN#"+pin)
-                .name("Pin %d".formatted(pin))
-                .address(pin)
+                .id(pin.getId())
+                .name(pin.getName())
+                .address(pin.getPin())
                 .min(minimumValue)
                 .max(maximumValue)
                 .build());
@@ -120,8 +140,8 @@ public class AnalogOutputPin extends Pin {
      * value is 1024.
      */
     public void on(final boolean force) {
-        if (force) pin.setValue(defaultMaximumValue);
-        else pin.setValue(maximumValue);
+        if (force) write(defaultMaximumValue);
+        else write(maximumValue);
     }
 
     /**
@@ -147,8 +167,24 @@ public class AnalogOutputPin extends Pin {
      * @param force True, if the pin should override the defined minimum, and be forced to 0, otherwise false.
      */
     public void off(final boolean force) {
-        if (force) pin.setValue(0);
-        else pin.setValue(minimumValue);
+        if (force) write(0);
+        else write(minimumValue);
+    }
+
+    /**
+     * Sets the pin's current value to a fraction of the range between the minimum and maximum values defined.
+     * @param fraction The pin's new value, where 0 is the minimum value and 1 is the maximum value.
+     */
+    public void setFraction(final double fraction) {
+        set((int) Math.round(minimumValue + Math.clamp(fraction,0d,1d) * (maximumValue - minimumValue)));
+    }
+
+    public int getMinimumValue() {
+        return minimumValue;
+    }
+
+    public int getMaximumValue() {
+        return maximumValue;
     }
 
     /**
@@ -169,7 +205,97 @@ public class AnalogOutputPin extends Pin {
      * @param ignoreLimit True if the max limit should be ignored, otherwise false.<br>Default: <code><b>False</b></code>
      */
     public void set(final int value, final boolean ignoreLimit) {
-        if (ignoreLimit) pin.setValue(Math.clamp(value,AnalogOutputPin.defaultMinimumValue, externalDac?AnalogOutputPin.defaultTwelveBitMaximumValue:AnalogOutputPin.defaultMaximumValue));
-        pin.setValue(Math.clamp(value,minimumValue,maximumValue));
+        if (ignoreLimit) write(Math.clamp(value,AnalogOutputPin.defaultMinimumValue, externalDac?AnalogOutputPin.defaultTwelveBitMaximumValue:AnalogOutputPin.defaultMaximumValue));
+        else write(Math.clamp(value,minimumValue,maximumValue));
+    }
+
+    private void write(final int value) {
+        requestedWrites.increment();
+        if (flusher == null) {
+            issue(value);
+            return;
+        }
+        requested.set(value);
+        // Coalescing may have stopped, and flushed, since it was checked, in which case nothing else writes the value.
+        if (flusher == null) flush();
+    }
+
+    private synchronized void issue(final int value) {
+        if (flusher != null && value == lastWritten) {
+            if (Metrics.enabled) metrics.skip();
+            return;
+        }
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
+        pin.setValue(value);
+        if (Metrics.enabled) metrics.write(start);
+        lastWritten = value;
+        issuedWrites.increment();
+    }
+
+    /**
+     * Coalesce writes to the pin. While coalescing, every write only stores the latest requested value,
+     * which is flushed to the hardware at most at the given rate by the shared {@link TimerWheel}.
+     * Values superseded before they are flushed are dropped, and values equal to the last written value are skipped.
+     * This is useful when the pin is updated far faster than the hardware can settle.
+     *
+     * @param maximumHz The highest rate at which values are written to the hardware.
+     * @return The Analog Output Pin Instance.
+     * @throws IllegalArgumentException If the rate is not positive.
+     */
+    public synchronized AnalogOutputPin coalesce(final double maximumHz) throws IllegalArgumentException {
+        if (!(maximumHz > 0)) throw new IllegalArgumentException("The flush rate must be more than 0!");
+        stopCoalescing();
+        final long period = Math.round(TimeUnit.SECONDS.toNanos(1) / maximumHz);
+        flusher = TimerWheel.shared().scheduleAtFixedRate(this::flush,period,period,TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    /**
+     * Stop coalescing writes. Any pending value is written immediately.
+     */
+    public synchronized void stopCoalescing() {
+        if (flusher == null) return;
+        flusher.cancel();
+        flusher = null;
+        flush();
+    }
+
+    public boolean isCoalescing() {
+        return flusher != null;
+    }
+
+    /**
+     * Write the latest requested value to the hardware now, if any value is pending.
+     */
+    public void flush() {
+        final int value = requested.getAndSet(noValue);
+        if (value != noValue) issue(value);
+    }
+
+    /**
+     * Stop coalescing, dropping any pending value, and drive the pin to 0.
+     */
+    @Override
+    protected synchronized void shutdown() {
+        if (flusher != null) flusher.cancel();
+        flusher = null;
+        requested.set(noValue);
+        pin.setValue(0);
+        lastWritten = 0;
+        shutdown(pin);
+    }
+
+    /**
+     * @return The number of values requested through this pin.
+     */
+    public long getRequestedWrites() {
+        return requestedWrites.sum();
+    }
+
+    /**
+     * @return The number of values actually written to the hardware.
+     */
+    public long getIssuedWrites() {
+        return issuedWrites.sum();
     }
 }
\ No newline at end of file
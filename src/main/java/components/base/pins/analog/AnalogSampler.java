@@ -0,0 +1,258 @@
+package components.base.pins.analog;
+
+import components.base.scheduling.TimerWheel;
+import components.base.scheduling.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Continuous, fixed-rate sampling of any number of analog inputs.<br>
+ * A sampler reads all of its channels on every tick of a single periodic task on a {@link TimerWheel},
+ * so many channels share one scheduler and one sample clock. Each sample passes through the channel's pipeline:
+ * <li><b>Oversampling:</b> The input is read several times per tick, and the readings are averaged,
+ * decimating them into a single sample.</li>
+ * <li><b>Filters:</b> The sample is passed through the channel's {@link SampleFilter}s, in order.</li>
+ * <li><b>History:</b> The sample is stored in a primitive ring buffer holding the most recent samples.</li>
+ * <li><b>Blocks:</b> Samples are collected into blocks, which are handed to the channel's subscribers once full.</li>
+ * The sampler keeps track of its own timing, reporting the jitter of its ticks and the number of samples missed
+ * because a tick came too late.
+ */
+@SuppressWarnings("unused")
+public final class AnalogSampler implements AutoCloseable {
+
+    /**
+     * Receives blocks of samples. The array is reused for every block, and must not be kept beyond the call.
+     */
+    @FunctionalInterface
+    public interface BlockListener {
+        void onBlock(@NotNull AnalogInputPin pin, @NotNull double[] samples, int length);
+    }
+
+    public final class Channel {
+
+        private final AnalogInputPin pin;
+        private final int oversampling;
+        private final SampleFilter[] filters;
+        private final double[] history;
+        private final double[] block;
+        private final CopyOnWriteArrayList<BlockListener> listeners = new CopyOnWriteArrayList<>();
+
+        private int blockLength = 0;
+        private volatile long count = 0;
+
+        private Channel(@NotNull final AnalogInputPin pin, final int oversampling, final int historySize, final int blockSize, @NotNull final SampleFilter[] filters) {
+            this.pin = pin;
+            this.oversampling = oversampling;
+            this.filters = filters;
+            this.history = new double[historySize];
+            this.block = new double[blockSize];
+        }
+
+        private void sample() {
+            double value = 0;
+            for (int i = 0; i < oversampling; i++) value += pin.readDouble();
+            value /= oversampling;
+            for (final SampleFilter filter : filters) value = filter.apply(value);
+
+            final long position = count;
+            history[(int) (position % history.length)] = value;
+            count = position + 1;
+
+            block[blockLength++] = value;
+            if (blockLength == block.length) {
+                for (final BlockListener listener : listeners) listener.onBlock(pin,block,blockLength);
+                blockLength = 0;
+            }
+        }
+
+        public void subscribe(@NotNull final BlockListener listener) {
+            listeners.add(listener);
+        }
+
+        public boolean unsubscribe(@NotNull final BlockListener listener) {
+            return listeners.remove(listener);
+        }
+
+        /**
+         * @return The most recent sample, or NaN if no sample has been taken yet.
+         */
+        public double latest() {
+            final long position = count;
+            return position == 0 ? Double.NaN : history[(int) ((position - 1) % history.length)];
+        }
+
+        /**
+         * Copy the most recent samples, oldest first, into the given array.
+         * Samples taken while copying may overwrite the oldest copied samples.
+         *
+         * @param destination Array receiving the samples.
+         * @return The number of samples copied.
+         */
+        public int copyHistory(@NotNull final double[] destination) {
+            final long position = count;
+            final int length = (int) Math.min(position, Math.min(history.length, destination.length));
+            for (int i = 0; i < length; i++) destination[i] = history[(int) ((position - length + i) % history.length)];
+            return length;
+        }
+
+        /**
+         * @return The number of samples taken on this channel.
+         */
+        public long getSamples() {
+            return count;
+        }
+
+        public AnalogInputPin getPin() {
+            return pin;
+        }
+    }
+
+    private final TimerWheel wheel;
+    private final long period;
+    private final CopyOnWriteArrayList<Channel> channels = new CopyOnWriteArrayList<>();
+
+    private Timeout timeout;
+    private long lastTick = 0;
+
+    private volatile long ticks = 0;
+    private volatile long missed = 0;
+    private volatile long lastJitter = 0;
+    private volatile long maximumJitter = 0;
+    private volatile long totalJitter = 0;
+
+    public AnalogSampler(final double hz) throws IllegalArgumentException {
+        this(hz,null);
+    }
+
+    /**
+     * Create a new Analog Sampler.
+     *
+     * @param hz    The sample rate.
+     * @param wheel The wheel driving the sampler, or null to use the shared wheel.
+     * @throws IllegalArgumentException If the sample rate is not positive, or faster than the wheel ticks.
+     */
+    public AnalogSampler(final double hz, @Nullable final TimerWheel wheel) throws IllegalArgumentException {
+        this.wheel = wheel;
+        if (!(hz > 0)) throw new IllegalArgumentException("The sample rate must be more than 0!");
+        this.period = Math.round(TimeUnit.SECONDS.toNanos(1) / hz);
+        if (period < wheel().getTickDuration()) throw new IllegalArgumentException("The sample rate cannot be faster than the ticks of the Timer Wheel!");
+    }
+
+    /**
+     * Add a channel to the sampler.
+     *
+     * @param pin          The pin to sample.
+     * @param oversampling The number of readings averaged into every sample.
+     * @param historySize  The number of recent samples to keep.
+     * @param blockSize    The number of samples handed to subscribers at a time.
+     * @param filters      The filters every sample is passed through, in order.
+     * @return The new channel.
+     * @throws IllegalArgumentException If the oversampling, history size or block size is less than 1.
+     */
+    public @NotNull Channel add(@NotNull final AnalogInputPin pin, final int oversampling, final int historySize, final int blockSize, @NotNull final SampleFilter... filters) throws IllegalArgumentException {
+        if (oversampling < 1) throw new IllegalArgumentException("Oversampling cannot be less than 1!");
+        else if (historySize < 1) throw new IllegalArgumentException("The history size cannot be less than 1!");
+        else if (blockSize < 1) throw new IllegalArgumentException("The block size cannot be less than 1!");
+        final Channel channel = new Channel(pin,oversampling,historySize,blockSize,filters.clone());
+        channels.add(channel);
+        return channel;
+    }
+
+    public boolean remove(@NotNull final Channel channel) {
+        return channels.remove(channel);
+    }
+
+    /**
+     * Start sampling. A sampler on the shared wheel can be started again after the shared wheel has been closed.
+     *
+     * @throws IllegalStateException If the sampler was given its own wheel, which has been closed.
+     */
+    public synchronized void start() throws IllegalStateException {
+        if (timeout != null && timeout.isPending()) return;
+        lastTick = 0;
+        for (final Channel channel : channels) for (final SampleFilter filter : channel.filters) filter.reset();
+        timeout = wheel().scheduleAtFixedRate(this::tick,0,period,TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+    }
+
+    /**
+     * @return True if the sampler is ticking. A sampler whose tick threw, or whose wheel was closed, has stopped.
+     */
+    public synchronized boolean isRunning() {
+        return timeout != null && timeout.isPending();
+    }
+
+    private @NotNull TimerWheel wheel() {
+        return wheel == null ? TimerWheel.shared() : wheel;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private void tick() {
+        final long now = System.nanoTime();
+        if (lastTick != 0) {
+            final long interval = now - lastTick;
+            final long jitter = Math.abs(interval - period);
+            lastJitter = jitter;
+            totalJitter += jitter;
+            if (jitter > maximumJitter) maximumJitter = jitter;
+            if (interval > period + (period >>> 1)) missed += (interval + (period >>> 1)) / period - 1;
+        }
+        lastTick = now;
+        ticks++;
+        for (final Channel channel : channels) channel.sample();
+    }
+
+    /**
+     * @return The sample period in nanoseconds.
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The number of ticks the sampler has run.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return The number of samples missed because a tick came at least one and a half periods late.
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    /**
+     * @return The deviation of the last tick interval from the sample period, in nanoseconds.
+     */
+    public long getLastJitter() {
+        return lastJitter;
+    }
+
+    /**
+     * @return The largest deviation of a tick interval from the sample period, in nanoseconds.
+     */
+    public long getMaximumJitter() {
+        return maximumJitter;
+    }
+
+    /**
+     * @return The mean deviation of the tick intervals from the sample period, in nanoseconds.
+     */
+    public double getMeanJitter() {
+        final long ticks = this.ticks;
+        return ticks < 2 ? 0 : (double) totalJitter / (ticks - 1);
+    }
+}
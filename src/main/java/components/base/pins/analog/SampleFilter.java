@@ -0,0 +1,18 @@
+package components.base.pins.analog;
+
+/**
+ * A stage of an {@link AnalogSampler} channel, transforming one sample at a time.
+ * Filters are stateful, and only ever invoked from the sampler's thread.
+ *
+ * @see SampleFilters
+ */
+@FunctionalInterface
+public interface SampleFilter {
+
+    double apply(double sample);
+
+    /**
+     * Discard any state the filter has built up.
+     */
+    default void reset() {}
+}
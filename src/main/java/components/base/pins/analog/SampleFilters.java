@@ -0,0 +1,147 @@
+package components.base.pins.analog;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Common {@link SampleFilter} implementations. All filters preallocate their state, and never allocate per sample.
+ */
+@SuppressWarnings("unused")
+public final class SampleFilters {
+
+    private SampleFilters() {}
+
+    /**
+     * Average of the last samples.
+     *
+     * @param window The number of samples to average.
+     * @return A new filter.
+     * @throws IllegalArgumentException If the window is less than 1.
+     */
+    public static @NotNull SampleFilter movingAverage(final int window) throws IllegalArgumentException {
+        if (window < 1) throw new IllegalArgumentException("The window of a moving average cannot be less than 1!");
+        return new MovingAverage(window);
+    }
+
+    /**
+     * Exponential smoothing, where each output is <code>alpha * sample + (1 - alpha) * previous</code>.
+     *
+     * @param alpha The smoothing factor, between 0 (exclusive) and 1 (inclusive).
+     * @return A new filter.
+     * @throws IllegalArgumentException If alpha is not within (0, 1].
+     */
+    public static @NotNull SampleFilter exponential(final double alpha) throws IllegalArgumentException {
+        if (!(alpha > 0 && alpha <= 1)) throw new IllegalArgumentException("The smoothing factor must be more than 0 and at most 1!");
+        return new ExponentialSmoothing(alpha);
+    }
+
+    /**
+     * Median of the last samples, useful for removing spikes.
+     *
+     * @param window The number of samples to take the median of.
+     * @return A new filter.
+     * @throws IllegalArgumentException If the window is less than 1.
+     */
+    public static @NotNull SampleFilter median(final int window) throws IllegalArgumentException {
+        if (window < 1) throw new IllegalArgumentException("The window of a median filter cannot be less than 1!");
+        return new Median(window);
+    }
+
+    private static final class MovingAverage implements SampleFilter {
+
+        private final double[] samples;
+        private double sum = 0;
+        private int index = 0;
+        private int count = 0;
+
+        private MovingAverage(final int window) {
+            this.samples = new double[window];
+        }
+
+        @Override
+        public double apply(final double sample) {
+            if (count == samples.length) sum -= samples[index];
+            else count++;
+            samples[index] = sample;
+            sum += sample;
+            index = (index + 1) % samples.length;
+            return sum / count;
+        }
+
+        @Override
+        public void reset() {
+            sum = 0;
+            index = 0;
+            count = 0;
+        }
+    }
+
+    private static final class ExponentialSmoothing implements SampleFilter {
+
+        private final double alpha;
+        private double value = 0;
+        private boolean primed = false;
+
+        private ExponentialSmoothing(final double alpha) {
+            this.alpha = alpha;
+        }
+
+        @Override
+        public double apply(final double sample) {
+            if (!primed) {
+                primed = true;
+                value = sample;
+            } else value += alpha * (sample - value);
+            return value;
+        }
+
+        @Override
+        public void reset() {
+            primed = false;
+        }
+    }
+
+    private static final class Median implements SampleFilter {
+
+        private final double[] samples;
+        private final double[] sorted;
+        private int index = 0;
+        private int count = 0;
+
+        private Median(final int window) {
+            this.samples = new double[window];
+            this.sorted = new double[window];
+        }
+
+        @Override
+        public double apply(final double sample) {
+            if (count == samples.length) remove(samples[index]);
+            else count++;
+            samples[index] = sample;
+            index = (index + 1) % samples.length;
+            insert(sample);
+            final int middle = count >>> 1;
+            return (count & 1) == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+        }
+
+        private void remove(final double value) {
+            int i = 0;
+            while (i < count - 1 && sorted[i] != value) i++;
+            System.arraycopy(sorted,i + 1,sorted,i,count - 1 - i);
+        }
+
+        private void insert(final double value) {
+            int i = count - 1;
+            while (i > 0 && sorted[i - 1] > value) {
+                sorted[i] = sorted[i - 1];
+                i--;
+            }
+            sorted[i] = value;
+        }
+
+        @Override
+        public void reset() {
+            index = 0;
+            count = 0;
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package components.base.pins.components;
 
-import components.base.pins.Pin;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
+import java.util.*;
 
 import static components.base.pins.components.GpioType.*;
 import static components.base.pins.components.PinType.*;
@@ -19,51 +17,115 @@ import static components.base.pins.components.PinType.*;
  * @apiNote The Enum contains a value by the name {@link PinIdentifier#BLANK}, with a pin-number of -1,
  * and is the first value defined in the enum. Keep this in mind if you decide to iterate all values.
  * A safe method for retrieving all values without {@link PinIdentifier#BLANK}
- * is provided through <b>{@link PinIdentifier#valuesSafe()}</b>
+ * is provided through <b>{@link PinIdentifier#valuesSafe()}</b><br>
+ * Lookups by physical pin-number, BCM GPIO number or type are backed by precomputed tables,
+ * and never allocate. The Pi4J ids and names of every pin are precomputed as well.
  * @see PinIdentifier#valuesSafe()
  */
 @SuppressWarnings("unused")
 public enum PinIdentifier {
     BLANK(-1, UNKNOWN),
     PIN_1(1, THREE_VOLT), PIN_2(2, FIVE_VOLT),
-    PIN_3(3, GPIO, SDA), PIN_4(4, FIVE_VOLT),
-    PIN_5(5, GPIO, SCL), PIN_6(6, GROUND),
-    PIN_7(7, GPIO, GPCLK0), PIN_8(8, GPIO, TXD),
-    PIN_9(9, GROUND), PIN_10(10, GPIO, RXD),
-    PIN_11(11, GPIO), PIN_12(12, GPIO, PCM_CLK),
-    PIN_13(13, GPIO), PIN_14(14, GROUND),
-    PIN_15(15, GPIO), PIN_16(16, GPIO),
-    PIN_17(17, THREE_VOLT), PIN_18(18, GPIO),
-    PIN_19(19, GPIO, MOSI), PIN_20(20, GROUND),
-    PIN_21(21, GPIO, MISO), PIN_22(22, GPIO),
-    PIN_23(23, GPIO, SCLK), PIN_24(24, GPIO, CE0),
-    PIN_25(25, GROUND), PIN_26(26, GPIO, CE1),
-    PIN_27(27, GPIO, ID_SD), PIN_28(28, GPIO, ID_SC),
-    PIN_29(29, GPIO), PIN_30(30, GROUND),
-    PIN_31(31, GPIO), PIN_32(32, GPIO, HW_PWM),
-    PIN_33(33, GPIO, HW_PWM), PIN_34(34, GROUND),
-    PIN_35(35, GPIO, PCM_FS), PIN_36(36, GPIO),
-    PIN_37(37, GPIO), PIN_38(38, GPIO, PCM_DIN),
-    PIN_39(39, GROUND), PIN_40(40, GPIO, PCM_DOUT),
+    PIN_3(3, 2, SDA), PIN_4(4, FIVE_VOLT),
+    PIN_5(5, 3, SCL), PIN_6(6, GROUND),
+    PIN_7(7, 4, GPCLK0), PIN_8(8, 14, TXD),
+    PIN_9(9, GROUND), PIN_10(10, 15, RXD),
+    PIN_11(11, 17), PIN_12(12, 18, PCM_CLK),
+    PIN_13(13, 27), PIN_14(14, GROUND),
+    PIN_15(15, 22), PIN_16(16, 23),
+    PIN_17(17, THREE_VOLT), PIN_18(18, 24),
+    PIN_19(19, 10, MOSI), PIN_20(20, GROUND),
+    PIN_21(21, 9, MISO), PIN_22(22, 25),
+    PIN_23(23, 11, SCLK), PIN_24(24, 8, CE0),
+    PIN_25(25, GROUND), PIN_26(26, 7, CE1),
+    PIN_27(27, 0, ID_SD), PIN_28(28, 1, ID_SC),
+    PIN_29(29, 5), PIN_30(30, GROUND),
+    PIN_31(31, 6), PIN_32(32, 12, HW_PWM),
+    PIN_33(33, 13, HW_PWM), PIN_34(34, GROUND),
+    PIN_35(35, 19, PCM_FS), PIN_36(36, 16),
+    PIN_37(37, 26), PIN_38(38, 20, PCM_DIN),
+    PIN_39(39, GROUND), PIN_40(40, 21, PCM_DOUT),
     ;
 
+    /**
+     * Highest BCM GPIO number exposed on the 40-pin header.
+     */
+    public static final int maximumBcm = 27;
+
+    private static final PinIdentifier[] byPin;
+    private static final PinIdentifier[] byBcm;
+    private static final Set<PinIdentifier> safeValues;
+    private static final Map<PinType, Set<PinIdentifier>> byPinType;
+    private static final Map<GpioType, Set<PinIdentifier>> byGpioType;
+
+    static {
+        final PinIdentifier[] values = values();
+        byPin = new PinIdentifier[41];
+        byBcm = new PinIdentifier[maximumBcm + 1];
+        Arrays.fill(byPin, BLANK);
+        Arrays.fill(byBcm, BLANK);
+
+        final EnumMap<PinType, Set<PinIdentifier>> pinTypes = new EnumMap<>(PinType.class);
+        final EnumMap<GpioType, Set<PinIdentifier>> gpioTypes = new EnumMap<>(GpioType.class);
+        for (final PinType type : PinType.values()) pinTypes.put(type, EnumSet.noneOf(PinIdentifier.class));
+        for (final GpioType type : GpioType.values()) gpioTypes.put(type, EnumSet.noneOf(PinIdentifier.class));
+
+        final EnumSet<PinIdentifier> safe = EnumSet.noneOf(PinIdentifier.class);
+        for (final PinIdentifier p : values) {
+            if (p == BLANK) continue;
+            safe.add(p);
+            byPin[p.pin] = p;
+            if (p.bcm >= 0) byBcm[p.bcm] = p;
+            pinTypes.get(p.type).add(p);
+            if (p.type == GPIO) gpioTypes.get(p.gpioType).add(p);
+        }
+
+        pinTypes.replaceAll((type, set) -> Collections.unmodifiableSet(set));
+        gpioTypes.replaceAll((type, set) -> Collections.unmodifiableSet(set));
+        safeValues = Collections.unmodifiableSet(safe);
+        byPinType = Collections.unmodifiableMap(pinTypes);
+        byGpioType = Collections.unmodifiableMap(gpioTypes);
+    }
+
     private final int pin;
+    private final int bcm;
     private final PinType type;
     private final GpioType gpioType;
+    private final String id;
+    private final String pwmId;
+    private final String name;
 
     PinIdentifier(final int pin, final PinType type) {
-        this(pin, type, null);
+        this(pin, -1, type, null);
     }
-    PinIdentifier(final int pin, final PinType type, @Nullable final GpioType gpioType) {
+    PinIdentifier(final int pin, final int bcm) {
+        this(pin, bcm, GPIO, null);
+    }
+    PinIdentifier(final int pin, final int bcm, @Nullable final GpioType gpioType) {
+        this(pin, bcm, GPIO, gpioType);
+    }
+    PinIdentifier(final int pin, final int bcm, final PinType type, @Nullable final GpioType gpioType) {
         this.pin = pin;
+        this.bcm = bcm;
         this.type = type;
         this.gpioType = gpioType == null ? GpioType.STANDARD : gpioType;
+        this.id = "PIN#" + pin;
+        this.pwmId = "PWM_PIN#" + pin;
+        this.name = "Pin " + pin;
     }
 
     public int getPin() {
         return pin;
     }
 
+    /**
+     * Get the Broadcom (BCM) GPIO number of the pin, which is the address Pi4J uses.
+     * @return The BCM number, or -1 if the pin is not a GPIO pin.
+     */
+    public int getBcm() {
+        return bcm;
+    }
+
     public PinType getType() {
         return type;
     }
@@ -72,13 +134,62 @@ public enum PinIdentifier {
         return gpioType;
     }
 
+    /**
+     * @return The Pi4J id of digital and analog I/O on the pin, such as <code>PIN#12</code>.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return The Pi4J id of PWM on the pin, such as <code>PWM_PIN#12</code>.
+     */
+    public String getPwmId() {
+        return pwmId;
+    }
+
+    /**
+     * @return The Pi4J name of I/O on the pin, such as <code>Pin 12</code>.
+     */
+    public String getName() {
+        return name;
+    }
+
     public boolean isStandardGpio() {
         return gpioType == GpioType.STANDARD;
     }
 
     public static PinIdentifier getPin(final int pin) {
-        for (PinIdentifier p : PinIdentifier.values()) if (p.getPin() == pin) return p;
-        return PinIdentifier.BLANK;
+        if (pin < 0 || pin >= byPin.length) return PinIdentifier.BLANK;
+        return byPin[pin];
+    }
+
+    /**
+     * Get the pin by its Broadcom (BCM) GPIO number.
+     * @param bcm The BCM GPIO number.
+     * @return The pin, or {@link PinIdentifier#BLANK} if no header pin has the given BCM number.
+     */
+    public static PinIdentifier getPinByBcm(final int bcm) {
+        if (bcm < 0 || bcm >= byBcm.length) return PinIdentifier.BLANK;
+        return byBcm[bcm];
+    }
+
+    /**
+     * Convert a physical header pin number to its BCM GPIO number.
+     * @param pin The physical pin number.
+     * @return The BCM number, or -1 if the pin is not a GPIO pin.
+     */
+    public static int toBcm(final int pin) {
+        return getPin(pin).bcm;
+    }
+
+    /**
+     * Convert a BCM GPIO number to its physical header pin number.
+     * @param bcm The BCM GPIO number.
+     * @return The physical pin number, or -1 if no header pin has the given BCM number.
+     */
+    public static int toPhysical(final int bcm) {
+        return getPinByBcm(bcm).pin;
     }
 
     public static PinType getPinType(final int pin) {
@@ -93,9 +204,29 @@ public enum PinIdentifier {
         return pin.isValid();
     }
 
-    public static Collection<PinIdentifier> valuesSafe() {
-        final HashSet<PinIdentifier> values = new HashSet<>(List.of(PinIdentifier.values()));
-        values.remove(PinIdentifier.BLANK);
-        return values;
+    /**
+     * Get all pins, excluding {@link PinIdentifier#BLANK}.
+     * @return An immutable, cached set of all pins.
+     */
+    public static Set<PinIdentifier> valuesSafe() {
+        return safeValues;
+    }
+
+    /**
+     * Get all pins of the given type.
+     * @param type The pin type.
+     * @return An immutable, cached set of all pins of the given type.
+     */
+    public static Set<PinIdentifier> valuesOf(@NotNull final PinType type) {
+        return byPinType.get(type);
+    }
+
+    /**
+     * Get all GPIO pins with the given capability.
+     * @param type The GPIO type.
+     * @return An immutable, cached set of all GPIO pins with the given capability.
+     */
+    public static Set<PinIdentifier> valuesOf(@NotNull final GpioType type) {
+        return byGpioType.get(type);
     }
 }
\ No newline at end of file
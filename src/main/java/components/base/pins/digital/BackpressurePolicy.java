@@ -0,0 +1,21 @@
+package components.base.pins.digital;
+
+/**
+ * Defines what an {@link EdgeDispatcher} does when edges arrive faster than its listeners consume them.
+ */
+@SuppressWarnings("unused")
+public enum BackpressurePolicy {
+    /**
+     * Discard the oldest queued edge to make room for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Keep only the most recent edge. Listeners always see the latest state, but may miss intermediate edges.
+     */
+    COALESCE,
+    /**
+     * Block the GPIO callback thread until there is room in the queue. No edges are lost,
+     * but a slow listener will delay the delivery of events from the provider.
+     */
+    BLOCK
+}
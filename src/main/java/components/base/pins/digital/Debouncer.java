@@ -0,0 +1,216 @@
+package components.base.pins.digital;
+
+import components.base.pins.components.PinIdentifier;
+import components.base.scheduling.TimerWheel;
+import components.base.scheduling.Timeout;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Software debounce stage for a single digital input.<br>
+ * The debouncer sits between the raw Pi4J input and the read and listener APIs of a {@link DigitalInputPin},
+ * and only passes on a new state once it is considered stable. All timing is driven by the shared
+ * {@link TimerWheel}, so hundreds of inputs can be debounced without a scheduled task or thread per pin.
+ * Three styles are available:
+ * <li><b>{@link Mode#TIME_WINDOW}:</b> A new state is accepted once no edge has been seen for the duration of the window.</li>
+ * <li><b>{@link Mode#CONSECUTIVE_SAMPLES}:</b> The input is sampled periodically, and a new state is accepted once
+ * it has been read the given number of times in a row.</li>
+ * <li><b>{@link Mode#INTEGRATOR}:</b> The input is sampled periodically, counting up while high and down while low.
+ * The state changes when the counter saturates at either end.</li>
+ * Every transition that was seen but never accepted is counted as a rejected glitch.
+ */
+@SuppressWarnings("unused")
+public final class Debouncer {
+
+    public enum Mode {
+        TIME_WINDOW,
+        CONSECUTIVE_SAMPLES,
+        INTEGRATOR
+    }
+
+    @FunctionalInterface
+    public interface Output {
+        void onStableChange(boolean high, long timestamp);
+    }
+
+    private final Mode mode;
+    private final long period;
+    private final int samples;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private PinIdentifier pin;
+    private BooleanSupplier input;
+    private Output output;
+    private Timeout timeout;
+
+    private volatile boolean stable;
+
+    // Time window state, guarded by this.
+    private boolean raw;
+    private long lastEdge;
+    private boolean settling;
+
+    // Sampling state, only touched by the wheel thread.
+    private int count;
+    private boolean excursion;
+
+    private Debouncer(@NotNull final Mode mode, final long period, final int samples) {
+        this.mode = mode;
+        this.period = period;
+        this.samples = samples;
+    }
+
+    /**
+     * Create a debouncer accepting a new state once the input has not changed for the duration of the window.
+     *
+     * @param window The time the input must be stable for.
+     * @param unit   The unit of the window.
+     * @return A new, unbound debouncer.
+     * @throws IllegalArgumentException If the window is less than 1.
+     */
+    public static @NotNull Debouncer timeWindow(final long window, @NotNull final TimeUnit unit) throws IllegalArgumentException {
+        if (window < 1) throw new IllegalArgumentException("The debounce window cannot be less than 1!");
+        return new Debouncer(Mode.TIME_WINDOW,unit.toNanos(window),0);
+    }
+
+    /**
+     * Create a debouncer sampling the input periodically, and accepting a new state once it has been
+     * read the given number of times in a row.
+     *
+     * @param samples The number of consecutive samples required.
+     * @param period  The time between samples.
+     * @param unit    The unit of the period.
+     * @return A new, unbound debouncer.
+     * @throws IllegalArgumentException If the number of samples or the period is less than 1.
+     */
+    public static @NotNull Debouncer consecutiveSamples(final int samples, final long period, @NotNull final TimeUnit unit) throws IllegalArgumentException {
+        if (samples < 1) throw new IllegalArgumentException("The number of debounce samples cannot be less than 1!");
+        else if (period < 1) throw new IllegalArgumentException("The debounce sample period cannot be less than 1!");
+        return new Debouncer(Mode.CONSECUTIVE_SAMPLES,unit.toNanos(period),samples);
+    }
+
+    /**
+     * Create a debouncer sampling the input periodically into a saturating counter,
+     * changing state once the counter reaches either end.
+     *
+     * @param threshold The value the counter saturates at.
+     * @param period    The time between samples.
+     * @param unit      The unit of the period.
+     * @return A new, unbound debouncer.
+     * @throws IllegalArgumentException If the threshold or the period is less than 1.
+     */
+    public static @NotNull Debouncer integrator(final int threshold, final long period, @NotNull final TimeUnit unit) throws IllegalArgumentException {
+        if (threshold < 1) throw new IllegalArgumentException("The integrator threshold cannot be less than 1!");
+        else if (period < 1) throw new IllegalArgumentException("The debounce sample period cannot be less than 1!");
+        return new Debouncer(Mode.INTEGRATOR,unit.toNanos(period),threshold);
+    }
+
+    synchronized void bind(@NotNull final PinIdentifier pin, @NotNull final BooleanSupplier input, @NotNull final Output output) throws IllegalStateException {
+        if (this.pin != null) throw new IllegalStateException("Debouncer is already bound to Pin %d!".formatted(this.pin.getPin()));
+        this.pin = pin;
+        this.input = input;
+        this.output = output;
+        this.stable = this.raw = input.getAsBoolean();
+        this.count = mode == Mode.INTEGRATOR && stable ? samples : 0;
+        if (mode != Mode.TIME_WINDOW) timeout = TimerWheel.shared().scheduleAtFixedRate(this::sample,period,period,TimeUnit.NANOSECONDS);
+    }
+
+    synchronized void unbind() {
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+        settling = false;
+        pin = null;
+    }
+
+    /**
+     * Feeds a raw edge to the debouncer. Only used in {@link Mode#TIME_WINDOW}.
+     */
+    synchronized void onRawEdge(final boolean high, final long timestamp) {
+        if (mode != Mode.TIME_WINDOW || pin == null) return;
+        if (settling) rejected.increment();
+        raw = high;
+        lastEdge = timestamp;
+        if (!settling) {
+            settling = true;
+            timeout = TimerWheel.shared().schedule(this::settle,period,TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void settle() {
+        final boolean changed;
+        final long timestamp;
+        synchronized (this) {
+            if (!settling) return;
+            final long remaining = lastEdge + period - System.nanoTime();
+            if (remaining > 0) {
+                timeout = TimerWheel.shared().schedule(this::settle,remaining,TimeUnit.NANOSECONDS);
+                return;
+            }
+            settling = false;
+            changed = raw != stable;
+            if (!changed) rejected.increment();
+            timestamp = lastEdge;
+            stable = raw;
+        }
+        if (changed) accept(stable,timestamp);
+    }
+
+    private void sample() {
+        final boolean high = input.getAsBoolean();
+        if (mode == Mode.CONSECUTIVE_SAMPLES) {
+            if (high == stable) {
+                if (count > 0) rejected.increment();
+                count = 0;
+            } else if (++count >= samples) {
+                count = 0;
+                stable = high;
+                accept(high,System.nanoTime());
+            }
+        } else {
+            count = high ? Math.min(samples, count + 1) : Math.max(0, count - 1);
+            if (count == samples && !stable || count == 0 && stable) {
+                excursion = false;
+                stable = count == samples;
+                accept(stable,System.nanoTime());
+            } else if (count == (stable ? samples : 0)) {
+                if (excursion) rejected.increment();
+                excursion = false;
+            } else excursion = true;
+        }
+    }
+
+    private void accept(final boolean high, final long timestamp) {
+        accepted.increment();
+        output.onStableChange(high,timestamp);
+    }
+
+    /**
+     * @return The debounced state of the input.
+     */
+    public boolean isHigh() {
+        return stable;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return The number of state changes passed on by the debouncer.
+     */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /**
+     * @return The number of transitions rejected as glitches or bounces.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
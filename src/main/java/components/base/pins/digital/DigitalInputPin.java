@@ -5,24 +5,182 @@ import com.pi4j.io.IOType;
 import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalInputConfig;
 import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
+import com.pi4j.io.gpio.digital.DigitalStateChangeListener;
 import com.pi4j.io.gpio.digital.PullResistance;
+import components.base.metrics.Metrics;
 import components.base.pins.Pin;
+import components.base.pins.PinRegistry;
+import components.base.pins.components.PinIdentifier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
 
 @SuppressWarnings("unused")
 public class DigitalInputPin extends Pin {
 
     protected final DigitalInput pin;
 
+    private final DigitalStateChangeListener stateListener = this::onStateChange;
+    private boolean listening = false;
+    private volatile EdgeDispatcher dispatcher;
+    private volatile EdgeCaptureBuffer capture;
+    private volatile Debouncer debouncer;
+
     public DigitalInputPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin) {
         super(pi4j,pin);
-        final int pinNumber = pin.getPin();
-        this.pin = pi4j.create(DigitalInputConfig
-                .newBuilder(pi4j)
-                .id("PIN#%d".formatted(pinNumber))
-                .name("Pin %d".formatted(pinNumber))
-                .address(pinNumber)
-                .build());
+        try {
+            this.pin = pi4j.create(DigitalInputConfig
+                    .newBuilder(pi4j)
+                    .id(pin.getId())
+                    .name(pin.getName())
+                    .address(pin.getBcm())
+                    .build());
+        } catch (final RuntimeException exception) {
+            PinRegistry.release(pin,owner);
+            throw exception;
+        }
+    }
+
+    private synchronized void listen() {
+        if (listening) return;
+        pin.addListener(stateListener);
+        listening = true;
+    }
+
+    private void onStateChange(@NotNull final DigitalStateChangeEvent<?> event) {
+        final long timestamp = System.nanoTime();
+        final EdgeCaptureBuffer capture = this.capture;
+        if (capture != null) capture.offer(timestamp,event.state() == DigitalState.HIGH);
+        final Debouncer debouncer = this.debouncer;
+        if (debouncer != null) debouncer.onRawEdge(event.state() == DigitalState.HIGH,timestamp);
+        else publish(event.state(),timestamp);
+    }
+
+    private void publish(@NotNull final DigitalState state, final long timestamp) {
+        final EdgeDispatcher dispatcher = this.dispatcher;
+        if (dispatcher != null) dispatcher.publish(state,timestamp);
+    }
+
+    /**
+     * Debounce this pin. Once debounced, reads and listeners only see the stable state produced by the debouncer,
+     * while edge capturing keeps recording the raw edges.
+     *
+     * @param debouncer The debouncer to use. A debouncer can only be bound to a single pin.
+     * @return The Digital Input Pin Instance.
+     * @throws IllegalStateException If the debouncer is already bound to a pin.
+     * @see Debouncer#timeWindow(long, java.util.concurrent.TimeUnit)
+     * @see Debouncer#consecutiveSamples(int, long, java.util.concurrent.TimeUnit)
+     * @see Debouncer#integrator(int, long, java.util.concurrent.TimeUnit)
+     */
+    public synchronized DigitalInputPin debounce(@NotNull final Debouncer debouncer) throws IllegalStateException {
+        debouncer.bind(identifier,pin::isHigh,(high, timestamp) -> publish(high ? DigitalState.HIGH : DigitalState.LOW,timestamp));
+        if (this.debouncer != null) this.debouncer.unbind();
+        this.debouncer = debouncer;
+        listen();
+        return this;
+    }
+
+    /**
+     * Stop debouncing this pin, passing raw edges and reads through again.
+     */
+    public synchronized void stopDebouncing() {
+        if (debouncer != null) debouncer.unbind();
+        debouncer = null;
+    }
+
+    public Debouncer getDebouncer() {
+        return debouncer;
+    }
+
+    private boolean high() {
+        final Debouncer debouncer = this.debouncer;
+        if (debouncer != null) return debouncer.isHigh();
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
+        final boolean high = pin.isHigh();
+        if (Metrics.enabled) metrics.read(start);
+        return high;
+    }
+
+    /**
+     * Get the dispatcher delivering this pin's edges to its listeners.
+     * If no dispatcher has been configured, a default one is created, using
+     * {@link BackpressurePolicy#DROP_OLDEST} and virtual threads.
+     *
+     * @return The Edge Dispatcher.
+     */
+    public synchronized EdgeDispatcher getDispatcher() {
+        if (dispatcher == null) dispatcher = new EdgeDispatcher(identifier);
+        return dispatcher;
+    }
+
+    /**
+     * Configure how edges are delivered to listeners. Must be called before any listener is added.
+     *
+     * @param policy   What to do when listeners fall behind.
+     * @param capacity The maximum number of queued edges.
+     * @param executor The executor listeners are invoked on, or null to use virtual threads.
+     * @return The Digital Input Pin Instance.
+     * @throws IllegalStateException If listeners have already been added to this pin.
+     */
+    public synchronized DigitalInputPin dispatch(@NotNull final BackpressurePolicy policy, final int capacity, @Nullable final Executor executor) throws IllegalStateException {
+        if (dispatcher != null && dispatcher.hasListeners()) throw new IllegalStateException("Cannot reconfigure the dispatcher of Pin %d while it has listeners!".formatted(identifier.getPin()));
+        dispatcher = new EdgeDispatcher(identifier,policy,capacity,executor);
+        return this;
+    }
+
+    /**
+     * Add a listener, which will be notified of the given edges.
+     * Listeners are never invoked on the GPIO callback thread.
+     *
+     * @param edge     The edge, or edges, to listen for.
+     * @param listener The listener.
+     */
+    public void addListener(@NotNull final Edge edge, @NotNull final EdgeListener listener) {
+        getDispatcher().addListener(edge,listener);
+        listen();
+    }
+
+    public boolean removeListener(@NotNull final EdgeListener listener) {
+        final EdgeDispatcher dispatcher = this.dispatcher;
+        return dispatcher != null && dispatcher.removeListener(listener);
+    }
+
+    /**
+     * Start capturing every edge of this pin, with a nanosecond timestamp, into a preallocated ring buffer.
+     * The captured edges can be drained through {@link EdgeCaptureBuffer#drain(long[], boolean[])} by a single consumer.
+     * Capturing does not allocate beyond the event Pi4J itself creates per edge.
+     *
+     * @param capacity The number of edges the buffer can hold. Rounded up to the nearest power of two.
+     * @return The capture buffer.
+     * @throws IllegalStateException If the pin is already capturing.
+     */
+    public synchronized EdgeCaptureBuffer startCapture(final int capacity) throws IllegalStateException {
+        if (capture != null) throw new IllegalStateException("Pin %d is already capturing edges!".formatted(identifier.getPin()));
+        final EdgeCaptureBuffer buffer = new EdgeCaptureBuffer(capacity);
+        capture = buffer;
+        listen();
+        return buffer;
+    }
+
+    /**
+     * Stop capturing edges. Edges still in the buffer can be drained after capturing has stopped.
+     *
+     * @return The capture buffer, or null if the pin was not capturing.
+     */
+    public synchronized EdgeCaptureBuffer stopCapture() {
+        final EdgeCaptureBuffer buffer = capture;
+        capture = null;
+        return buffer;
+    }
+
+    public EdgeCaptureBuffer getCapture() {
+        return capture;
+    }
+
+    public boolean isCapturing() {
+        return capture != null;
     }
 
     public PullResistance pull() {
@@ -30,31 +188,44 @@ public class DigitalInputPin extends Pin {
     }
 
     public int readAsInteger() {
-        return pin.isHigh() ? 1 : 0;
+        return high() ? 1 : 0;
     }
 
     public boolean readAsBoolean() {
-        return pin.isHigh();
+        return high();
     }
 
     public DigitalState read() {
-        return pin.state();
+        return debouncer != null ? debouncer.isHigh() ? DigitalState.HIGH : DigitalState.LOW : pin.state();
     }
 
     public boolean isHigh() {
-        return pin.isHigh();
+        return high();
     }
 
     public  boolean isLow() {
-        return pin.isLow();
+        return !high();
     }
 
     public boolean isOn() {
-        return pin.isOn();
+        return debouncer != null ? debouncer.isHigh() : pin.isOn();
     }
 
     public boolean isOff() {
-        return pin.isOff();
+        return debouncer != null ? !debouncer.isHigh() : pin.isOff();
+    }
+
+    /**
+     * Stop listening, debouncing and capturing. Listeners are no longer notified once the pin is closed.
+     */
+    @Override
+    protected synchronized void shutdown() {
+        if (listening) pin.removeListener(stateListener);
+        listening = false;
+        stopDebouncing();
+        stopCapture();
+        dispatcher = null;
+        shutdown(pin);
     }
 
     public Number address() {
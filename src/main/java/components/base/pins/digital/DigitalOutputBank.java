@@ -0,0 +1,158 @@
+package components.base.pins.digital;
+
+import com.pi4j.context.Context;
+import components.base.pins.Pin;
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A group of up to 64 digital outputs, written together as a single bit mask.<br>
+ * Bit <i>n</i> of the mask corresponds to the <i>n</i>-th pin given when creating the bank.
+ * Every write is diffed against the last written mask, so only the pins that actually change are touched,
+ * and the changed pins are written back-to-back to keep the skew between bits as low as possible.
+ * This makes the bank well suited for driving parallel buses or LED banks.<br>
+ * The bank owns its pins, and closes them all when closed.
+ */
+@SuppressWarnings("unused")
+public class DigitalOutputBank implements AutoCloseable {
+
+    private final PinIdentifier[] identifiers;
+    private final DigitalOutputPin[] pins;
+    private final long all;
+
+    private long mask;
+    private long writes = 0;
+    private long pinWrites = 0;
+
+    /**
+     * Create a new Digital Output Bank.
+     *
+     * @param pi4j The Pi4J Context.
+     * @param pins The pins of the bank, in bit order.
+     * @throws IllegalArgumentException If no pins or more than 64 pins are given, or a pin is given twice.
+     * @throws IllegalStateException    If any of the pins is already in use.
+     */
+    public DigitalOutputBank(@NotNull final Context pi4j, @NotNull final PinIdentifier... pins) throws IllegalArgumentException, IllegalStateException {
+        if (pins.length == 0) throw new IllegalArgumentException("A Digital Output Bank requires at least one pin!");
+        else if (pins.length > Long.SIZE) throw new IllegalArgumentException("A Digital Output Bank cannot contain more than %d pins!".formatted(Long.SIZE));
+        for (int i = 0; i < pins.length; i++) for (int j = i + 1; j < pins.length; j++) {
+            if (pins[i] == pins[j]) throw new IllegalArgumentException("Pin %d is defined more than once!".formatted(pins[i].getPin()));
+        }
+
+        this.identifiers = pins.clone();
+        this.pins = new DigitalOutputPin[pins.length];
+        this.all = pins.length == Long.SIZE ? -1L : (1L << pins.length) - 1;
+        long initial = 0;
+        try {
+            for (int i = 0; i < pins.length; i++) {
+                this.pins[i] = new DigitalOutputPin(pi4j,pins[i]);
+                if (this.pins[i].isHigh()) initial |= 1L << i;
+            }
+        } catch (final RuntimeException exception) {
+            // A pin which failed to construct has already released its own claim.
+            Pin.closeAll(exception,this.pins);
+            throw exception;
+        }
+        this.mask = initial;
+    }
+
+    /**
+     * Write the whole bank. Only the pins whose bit differs from the last written mask are touched.
+     *
+     * @param value The new mask. Bits beyond the size of the bank are ignored.
+     */
+    public synchronized void write(final long value) {
+        final long target = value & all;
+        long changed = target ^ mask;
+        writes++;
+        while (changed != 0) {
+            final int bit = Long.numberOfTrailingZeros(changed);
+            if ((target & 1L << bit) != 0) pins[bit].on();
+            else pins[bit].off();
+            pinWrites++;
+            changed &= changed - 1;
+        }
+        mask = target;
+    }
+
+    /**
+     * Change only the bits selected by the given bit mask.
+     *
+     * @param bits  The bits to change.
+     * @param value The new values of the selected bits.
+     */
+    public synchronized void write(final long bits, final long value) {
+        write(mask & ~bits | value & bits);
+    }
+
+    public synchronized void set(final int bit, final boolean high) {
+        checkBit(bit);
+        write(high ? mask | 1L << bit : mask & ~(1L << bit));
+    }
+
+    public synchronized void toggle(final int bit) {
+        checkBit(bit);
+        write(mask ^ 1L << bit);
+    }
+
+    public void on() {
+        write(all);
+    }
+
+    public void off() {
+        write(0);
+    }
+
+    /**
+     * @return The last written mask.
+     */
+    public synchronized long read() {
+        return mask;
+    }
+
+    public synchronized boolean isHigh(final int bit) {
+        checkBit(bit);
+        return (mask & 1L << bit) != 0;
+    }
+
+    private void checkBit(final int bit) throws IndexOutOfBoundsException {
+        if (bit < 0 || bit >= pins.length) throw new IndexOutOfBoundsException("Bit %d is outside of the bank's %d pins!".formatted(bit,pins.length));
+    }
+
+    public int size() {
+        return pins.length;
+    }
+
+    public PinIdentifier getIdentifier(final int bit) {
+        checkBit(bit);
+        return identifiers[bit];
+    }
+
+    public DigitalOutputPin getPin(final int bit) {
+        checkBit(bit);
+        return pins[bit];
+    }
+
+    /**
+     * @return The number of times the bank has been written.
+     */
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    /**
+     * @return The number of individual pin writes issued to the provider.
+     */
+    public synchronized long getPinWrites() {
+        return pinWrites;
+    }
+
+    /**
+     * Drive every pin of the bank low, and close them. Every pin is closed, even if closing some of them fails.
+     */
+    @Override
+    public synchronized void close() {
+        mask = 0;
+        Pin.closeAll(pins);
+    }
+}
@@ -5,14 +5,33 @@ import com.pi4j.io.IOType;
 import com.pi4j.io.gpio.digital.DigitalOutput;
 import com.pi4j.io.gpio.digital.DigitalOutputConfig;
 import com.pi4j.io.gpio.digital.DigitalState;
+import components.base.metrics.Metrics;
 import components.base.pins.Pin;
+import components.base.pins.PinRegistry;
 import components.base.pins.components.PinIdentifier;
+import components.pattern.LedPatternEngine;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Digital output pin.<br>
+ * By default, the pin keeps a write-through shadow of the state last written through this library.
+ * Reads are answered from the shadow, and writes setting the pin to the state it already has are skipped,
+ * so neither has to go through the provider. Should external hardware be able to change the line,
+ * state tracking can be disabled, in which case every read and write goes to the provider.
+ */
 @SuppressWarnings("unused")
 public class DigitalOutputPin extends Pin {
 
+    private static final int unknown = -1;
+    private static final int low = 0;
+    private static final int high = 1;
+
     private final boolean alwaysOn;
+    private volatile boolean trackState;
+    private volatile int shadow = unknown;
+    private final LongAdder skippedWrites = new LongAdder();
 
     protected final DigitalOutput pin;
 
@@ -21,16 +40,34 @@ public class DigitalOutputPin extends Pin {
     }
 
     public DigitalOutputPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, final boolean alwaysOn) {
+        this(pi4j,pin,alwaysOn,true);
+    }
+
+    /**
+     * Create a new Digital Output Pin.
+     *
+     * @param pi4j       The Pi4J Context.
+     * @param pin        The Pin Identifier to assign.
+     * @param alwaysOn   True if the pin should be turned on, and ignore any attempt to turn it off.
+     * @param trackState True if the pin should keep a shadow of its state, skipping redundant provider calls.
+     *                   Set to false if external hardware may change the line.
+     */
+    public DigitalOutputPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, final boolean alwaysOn, final boolean trackState) {
         super(pi4j,pin);
         this.alwaysOn = alwaysOn;
-        final int pinNumber = pin.getPin();
-        this.pin = pi4j.create(DigitalOutputConfig
-                .newBuilder(pi4j)
-                .id("PIN#%d".formatted(pinNumber))
-                .name("Pin %d".formatted(pinNumber))
-                .address(pinNumber)
-                .build());
-        if (alwaysOn) on();
+        this.trackState = trackState;
+        try {
+            this.pin = pi4j.create(DigitalOutputConfig
+                    .newBuilder(pi4j)
+                    .id(pin.getId())
+                    .name(pin.getName())
+                    .address(pin.getBcm())
+                    .build());
+        } catch (final RuntimeException exception) {
+            PinRegistry.release(pin,owner);
+            throw exception;
+        }
+        if (alwaysOn) write(high);
     }
 
     public void set(final boolean turnOn) {
@@ -45,39 +82,121 @@ public class DigitalOutputPin extends Pin {
         else off();
     }
 
+    private synchronized void write(final int state) {
+        if (trackState && shadow == state) {
+            skippedWrites.increment();
+            if (Metrics.enabled) metrics.skip();
+            return;
+        }
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
+        if (state == high) pin.high();
+        else pin.low();
+        if (Metrics.enabled) metrics.write(start);
+        if (trackState) shadow = state;
+    }
+
+    /**
+     * @return The shadow state if it is tracked and known, otherwise the state reported by the provider, which may be unknown.
+     */
+    private @NotNull DigitalState state() {
+        final int state = shadow;
+        if (state != unknown && trackState) return state == high ? DigitalState.HIGH : DigitalState.LOW;
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
+        final DigitalState current = pin.state();
+        if (Metrics.enabled) metrics.read(start);
+        return current;
+    }
+
     public void on() {
-        pin.high();
+        write(high);
     }
 
     public boolean isOn() {
-        return pin.state() == DigitalState.HIGH;
+        return state() == DigitalState.HIGH;
     }
 
     public void off() {
         if (alwaysOn) return;
-        pin.low();
+        write(low);
     }
 
     public boolean isOff() {
-        return pin.state() == DigitalState.LOW;
+        return state() == DigitalState.LOW;
+    }
+
+    /**
+     * Toggle the pin.
+     * @return True if the pin is on after toggling, otherwise false.
+     */
+    public synchronized boolean toggle() {
+        if (state() == DigitalState.HIGH) off();
+        else on();
+        return state() == DigitalState.HIGH;
     }
 
     public boolean isHigh() {
-        return pin.isHigh();
+        return state() == DigitalState.HIGH;
     }
 
     public  boolean isLow() {
-        return pin.isLow();
+        return state() == DigitalState.LOW;
     }
 
     public DigitalState getState() {
-        return pin.state();
+        return state();
     }
 
+    /**
+     * Enable or disable the shadow state. Disabling it discards the tracked state.
+     * @param enable True to track the state, otherwise false.
+     * @return The Digital Output Pin Instance.
+     */
+    public DigitalOutputPin trackState(final boolean enable) {
+        trackState = enable;
+        shadow = unknown;
+        return this;
+    }
+
+    public boolean isTrackingState() {
+        return trackState;
+    }
+
+    /**
+     * Discard the shadow state, forcing the next read and write to go through the provider.
+     */
+    public void invalidateState() {
+        shadow = unknown;
+    }
+
+    /**
+     * @return The number of writes skipped because the pin already had the requested state.
+     */
+    public long getSkippedWrites() {
+        return skippedWrites.sum();
+    }
+
+    /**
+     * Get the underlying Pi4J output. Since anything done through it bypasses this library,
+     * the shadow state is discarded.
+     * @return The Pi4J Digital Output.
+     */
     public DigitalOutput getPin() {
+        invalidateState();
         return pin;
     }
 
+    /**
+     * Stop the pattern playing on the pin from the shared {@link LedPatternEngine}, and drive the pin low,
+     * ignoring {@link #isTrackingState() the shadow state} and whether it is always on.
+     */
+    @Override
+    protected synchronized void shutdown() {
+        LedPatternEngine.shared().stop(this);
+        pin.low();
+        shadow = unknown;
+        shutdown(pin);
+    }
+
     public Number address() {
         return pin.getAddress();
     }
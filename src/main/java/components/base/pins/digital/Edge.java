@@ -0,0 +1,28 @@
+package components.base.pins.digital;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The edge, or edges, of a digital signal a listener is interested in.
+ */
+@SuppressWarnings("unused")
+public enum Edge {
+    RISING,
+    FALLING,
+    BOTH;
+
+    /**
+     * Checks if a transition into the given state is covered by this edge.
+     *
+     * @param state The state the pin changed to.
+     * @return True | False
+     */
+    public boolean matches(@NotNull final DigitalState state) {
+        return switch (this) {
+            case RISING -> state == DigitalState.HIGH;
+            case FALLING -> state == DigitalState.LOW;
+            case BOTH -> state != DigitalState.UNKNOWN;
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package components.base.pins.digital;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated ring buffer of edges, each stored as a nanosecond timestamp and the state the pin changed to.<br>
+ * The buffer is single-producer/single-consumer: the GPIO callback thread writes edges through
+ * {@link #offer(long, boolean)}, while one consumer thread drains them into caller-supplied arrays.
+ * Neither side locks or allocates, which keeps garbage collection from disturbing timing when
+ * capturing pulse trains at high frequencies.<br>
+ * Should the buffer be full, new edges are discarded and counted as overruns.
+ */
+@SuppressWarnings("unused")
+public final class EdgeCaptureBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final long[] states;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+
+    /**
+     * Create a new Edge Capture Buffer.
+     *
+     * @param capacity The number of edges the buffer can hold. Rounded up to the nearest power of two.
+     * @throws IllegalArgumentException If the capacity is less than 1 or more than 2<sup>30</sup>.
+     */
+    public EdgeCaptureBuffer(final int capacity) throws IllegalArgumentException {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity of an Edge Capture Buffer cannot be less than 1!");
+        else if (capacity > 1 << 30) throw new IllegalArgumentException("The capacity of an Edge Capture Buffer cannot be more than 2^30!");
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.timestamps = new long[this.capacity];
+        this.states = new long[(this.capacity + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * Write an edge to the buffer. Must only be called from the producing thread.
+     *
+     * @param timestamp The time of the edge, as given by {@link System#nanoTime()}.
+     * @param high      True if the pin changed to high, otherwise false.
+     * @return True if the edge was written, false if the buffer was full.
+     */
+    public boolean offer(final long timestamp, final boolean high) {
+        final long position = head.get();
+        if (position - tail.get() >= capacity) {
+            overruns.lazySet(overruns.get() + 1);
+            return false;
+        }
+        final int index = (int) position & mask;
+        timestamps[index] = timestamp;
+        if (high) states[index >>> 6] |= 1L << index;
+        else states[index >>> 6] &= ~(1L << index);
+        head.lazySet(position + 1);
+        return true;
+    }
+
+    /**
+     * Drain buffered edges into the given arrays. Must only be called from the consuming thread.
+     *
+     * @param timestamps Array receiving the timestamps of the edges.
+     * @param states     Array receiving the states of the edges, true meaning high.
+     * @param offset     The index of the arrays to start writing at.
+     * @param length     The maximum number of edges to drain.
+     * @return The number of edges drained.
+     */
+    public int drain(@NotNull final long[] timestamps, @NotNull final boolean[] states, final int offset, final int length) {
+        final long position = tail.get();
+        final int count = (int) Math.min(head.get() - position, Math.min(length, Math.min(timestamps.length, states.length) - offset));
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (position + i) & mask;
+            timestamps[offset + i] = this.timestamps[index];
+            states[offset + i] = (this.states[index >>> 6] & 1L << index) != 0;
+        }
+        if (count > 0) tail.lazySet(position + count);
+        return count;
+    }
+
+    /**
+     * Drain buffered edges into the given arrays. Must only be called from the consuming thread.
+     *
+     * @param timestamps Array receiving the timestamps of the edges.
+     * @param states     Array receiving the states of the edges, true meaning high.
+     * @return The number of edges drained.
+     */
+    public int drain(@NotNull final long[] timestamps, @NotNull final boolean[] states) {
+        return drain(timestamps,states,0,timestamps.length);
+    }
+
+    /**
+     * Drain only the timestamps of buffered edges into the given array. Must only be called from the consuming thread.
+     *
+     * @param timestamps Array receiving the timestamps of the edges.
+     * @param offset     The index of the array to start writing at.
+     * @param length     The maximum number of edges to drain.
+     * @return The number of edges drained.
+     */
+    public int drainTimestamps(@NotNull final long[] timestamps, final int offset, final int length) {
+        final long position = tail.get();
+        final int count = (int) Math.min(head.get() - position, Math.min(length, timestamps.length - offset));
+        for (int i = 0; i < count; i++) timestamps[offset + i] = this.timestamps[(int) (position + i) & mask];
+        if (count > 0) tail.lazySet(position + count);
+        return count;
+    }
+
+    /**
+     * Discard all buffered edges. Must only be called from the consuming thread.
+     */
+    public void clear() {
+        tail.lazySet(head.get());
+    }
+
+    /**
+     * @return The number of edges currently buffered.
+     */
+    public int size() {
+        return (int) (head.get() - tail.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The total number of edges written to the buffer.
+     */
+    public long getCaptured() {
+        return head.get();
+    }
+
+    /**
+     * @return The number of edges discarded because the buffer was full.
+     */
+    public long getOverruns() {
+        return overruns.get();
+    }
+}
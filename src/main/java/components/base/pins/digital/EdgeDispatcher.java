@@ -0,0 +1,191 @@
+package components.base.pins.digital;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans the edges of a single digital input out to its listeners.<br>
+ * Edges are handed off from the GPIO callback thread to a queue, which is drained by at most one task
+ * at a time on the dispatcher's executor. Listeners therefore see edges in order, and a slow listener
+ * can never stall the GPIO callback thread, unless {@link BackpressurePolicy#BLOCK} is used.
+ * By default, edges are delivered on virtual threads.
+ */
+@SuppressWarnings("unused")
+public class EdgeDispatcher {
+
+    public static final int defaultCapacity = 64;
+
+    private static final Executor virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private record Registration(Edge edge, EdgeListener listener) {}
+
+    private final PinIdentifier pin;
+    private final BackpressurePolicy policy;
+    private final Executor executor;
+
+    private final ArrayBlockingQueue<EdgeEvent> queue;
+    private final AtomicReference<EdgeEvent> latest = new AtomicReference<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final CopyOnWriteArrayList<Registration> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public EdgeDispatcher(@NotNull final PinIdentifier pin) {
+        this(pin, BackpressurePolicy.DROP_OLDEST, defaultCapacity, null);
+    }
+
+    /**
+     * Create a new Edge Dispatcher.
+     *
+     * @param pin      The pin the dispatched edges originate from.
+     * @param policy   What to do when the queue is full.
+     * @param capacity The maximum number of queued edges. Ignored for {@link BackpressurePolicy#COALESCE}.
+     * @param executor The executor listeners are invoked on, or null to use virtual threads.
+     * @throws IllegalArgumentException If the capacity is less than 1.
+     */
+    public EdgeDispatcher(@NotNull final PinIdentifier pin, @NotNull final BackpressurePolicy policy, final int capacity, @Nullable final Executor executor) throws IllegalArgumentException {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity of an Edge Dispatcher cannot be less than 1!");
+        this.pin = pin;
+        this.policy = policy;
+        this.executor = executor == null ? virtualThreadExecutor : executor;
+        this.queue = policy == BackpressurePolicy.COALESCE ? null : new ArrayBlockingQueue<>(capacity);
+    }
+
+    public void addListener(@NotNull final Edge edge, @NotNull final EdgeListener listener) {
+        listeners.add(new Registration(edge,listener));
+    }
+
+    public boolean removeListener(@NotNull final EdgeListener listener) {
+        return listeners.removeIf(registration -> registration.listener == listener);
+    }
+
+    public boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Publishes an edge to the listeners. Called from the GPIO callback thread.
+     *
+     * @param state     The state the pin changed to.
+     * @param timestamp The time of the edge, as given by {@link System#nanoTime()}.
+     */
+    public void publish(@NotNull final DigitalState state, final long timestamp) {
+        received.increment();
+        if (listeners.isEmpty()) return;
+
+        final EdgeEvent event = new EdgeEvent(pin,state,timestamp);
+        switch (policy) {
+            case COALESCE -> {
+                if (latest.getAndSet(event) != null) coalesced.increment();
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(event)) if (queue.poll() != null) dropped.increment();
+            }
+            case BLOCK -> {
+                try {
+                    queue.put(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                    return;
+                }
+            }
+        }
+        if (!draining.compareAndSet(false,true)) return;
+        try {
+            executor.execute(this::drain);
+        } catch (final RejectedExecutionException exception) {
+            // Nothing is going to drain the queued edges, so drop them, and try again on the next edge.
+            while (next() != null) dropped.increment();
+            draining.set(false);
+        }
+    }
+
+    private void drain() {
+        do {
+            EdgeEvent event;
+            while ((event = next()) != null) deliver(event);
+            draining.set(false);
+        } while (hasPending() && draining.compareAndSet(false,true));
+    }
+
+    private @Nullable EdgeEvent next() {
+        return queue == null ? latest.getAndSet(null) : queue.poll();
+    }
+
+    private boolean hasPending() {
+        return queue == null ? latest.get() != null : !queue.isEmpty();
+    }
+
+    private void deliver(@NotNull final EdgeEvent event) {
+        for (final Registration registration : listeners) {
+            if (!registration.edge.matches(event.state())) continue;
+            try {
+                registration.listener.onEdge(event);
+                delivered.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread,e);
+            }
+        }
+    }
+
+    public PinIdentifier getPin() {
+        return pin;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return The number of edges received from the pin, including edges seen while no listeners were registered.
+     */
+    public long getReceived() {
+        return received.sum();
+    }
+
+    /**
+     * @return The number of successful listener invocations.
+     */
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * @return The number of edges discarded because the queue was full, or the executor rejected delivering them.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return The number of edges superseded by a newer edge before being delivered.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return The number of listener invocations that threw an exception.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,13 @@
+package components.base.pins.digital;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import components.base.pins.components.PinIdentifier;
+
+/**
+ * A single edge seen on a digital input.
+ *
+ * @param pin       The pin the edge occurred on.
+ * @param state     The state the pin changed to.
+ * @param timestamp The time of the edge, as given by {@link System#nanoTime()}.
+ */
+public record EdgeEvent(PinIdentifier pin, DigitalState state, long timestamp) {}
@@ -0,0 +1,8 @@
+package components.base.pins.digital;
+
+import org.jetbrains.annotations.NotNull;
+
+@FunctionalInterface
+public interface EdgeListener {
+    void onEdge(@NotNull EdgeEvent event);
+}
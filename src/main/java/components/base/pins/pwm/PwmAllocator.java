@@ -0,0 +1,178 @@
+package components.base.pins.pwm;
+
+import com.pi4j.io.pwm.PwmType;
+import com.pi4j.util.Console;
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Process-wide allocator of the hardware PWM channels.<br>
+ * The header pins able to output hardware PWM, and the channels they are wired to, depend on the board:
+ * <li><b>Pi 4 and earlier:</b> GPIO 12 and 18 share channel 0, and GPIO 13 and 19 share channel 1.</li>
+ * <li><b>Pi 5:</b> GPIO 12, 13, 18 and 19 each have a channel of their own, channels 0 to 3.</li>
+ * A channel can only drive one pin at a time. When a PWM pin is created, the allocator hands it its hardware channel
+ * if the pin has one and no other pin holds it, and otherwise falls back to software PWM, warning on the console
+ * whenever that means a hardware capable pin, or a high frequency, ends up in software.<br>
+ * The board is detected from the device tree, and can be overridden with {@link #board(Board)}.
+ */
+@SuppressWarnings("unused")
+public final class PwmAllocator {
+
+    /**
+     * Software PWM above this frequency burns a noticeable amount of CPU, and is warned about.
+     */
+    public static final int softwareWarningFrequency = 1000;
+
+    public enum Board {
+        PI_4(0, 1, 0, 1),
+        PI_5(0, 1, 2, 3);
+
+        private static final int[] pwmBcm = {12, 13, 18, 19};
+
+        private final int[] channels;
+        private final int count;
+
+        Board(final int... channels) {
+            this.channels = channels;
+            int count = 0;
+            for (final int channel : channels) count = Math.max(count, channel + 1);
+            this.count = count;
+        }
+
+        /**
+         * @param pin The pin.
+         * @return The hardware PWM channel of the pin on this board, or -1 if the pin has none.
+         */
+        public int channelOf(@NotNull final PinIdentifier pin) {
+            final int bcm = pin.getBcm();
+            for (int i = 0; i < pwmBcm.length; i++) if (pwmBcm[i] == bcm) return channels[i];
+            return -1;
+        }
+
+        /**
+         * @return The number of hardware PWM channels on this board.
+         */
+        public int channels() {
+            return count;
+        }
+
+        /**
+         * @return The board, as reported by the device tree. Defaults to {@link #PI_4} if it cannot be read.
+         */
+        public static @NotNull Board detect() {
+            try {
+                final String model = Files.readString(Path.of("/proc/device-tree/model"));
+                return model.contains("Raspberry Pi 5") ? PI_5 : PI_4;
+            } catch (final IOException | SecurityException exception) {
+                return PI_4;
+            }
+        }
+    }
+
+    private static final Console console = new Console();
+
+    private static Board board;
+    private static PinIdentifier[] holders;
+    private static Object[] owners;
+
+    private PwmAllocator() {}
+
+    public static synchronized @NotNull Board board() {
+        if (board == null) board(Board.detect());
+        return board;
+    }
+
+    /**
+     * Override the detected board.
+     *
+     * @param board The board.
+     * @throws IllegalStateException If any hardware channel is already allocated.
+     */
+    public static synchronized void board(@NotNull final Board board) throws IllegalStateException {
+        if (holders != null) for (final PinIdentifier holder : holders) if (holder != null) throw new IllegalStateException("Cannot change the board while hardware PWM channels are allocated!");
+        PwmAllocator.board = board;
+        holders = new PinIdentifier[board.channels()];
+        owners = new Object[board.channels()];
+    }
+
+    /**
+     * Allocate PWM for a pin, preferring hardware PWM.
+     *
+     * @param pin   The pin.
+     * @param hz    The frequency the pin is intended to run at.
+     * @param owner The instance that will hold the channel.
+     * @return {@link PwmType#HARDWARE} if the pin was given its hardware channel, otherwise {@link PwmType#SOFTWARE}.
+     */
+    public static synchronized @NotNull PwmType allocate(@NotNull final PinIdentifier pin, final int hz, @NotNull final Object owner) {
+        final int channel = board().channelOf(pin);
+        if (channel >= 0) {
+            if (holders[channel] == null || owners[channel] == owner) {
+                holders[channel] = pin;
+                owners[channel] = owner;
+                return PwmType.HARDWARE;
+            }
+            console.println("Warning: %s shares hardware PWM channel %d with %s, which already holds it. Falling back to software PWM."
+                    .formatted(pin,channel,holders[channel]));
+        } else if (hz > softwareWarningFrequency) {
+            console.println("Warning: %s has no hardware PWM channel, running %d Hz in software PWM. Consider GPIO 12, 13, 18 or 19."
+                    .formatted(pin,hz));
+        }
+        return PwmType.SOFTWARE;
+    }
+
+    /**
+     * Release the hardware channel of a pin, given that it is held by the given owner.
+     *
+     * @param pin   The pin.
+     * @param owner The instance currently holding the channel.
+     * @return True if the channel was released, otherwise false.
+     */
+    public static synchronized boolean release(@NotNull final PinIdentifier pin, @NotNull final Object owner) {
+        final int channel = board().channelOf(pin);
+        if (channel < 0 || holders[channel] != pin || owners[channel] != owner) return false;
+        holders[channel] = null;
+        owners[channel] = null;
+        return true;
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The hardware PWM channel of the pin, or -1 if the pin has none.
+     */
+    public static int getChannel(@NotNull final PinIdentifier pin) {
+        return board().channelOf(pin);
+    }
+
+    /**
+     * @param channel The hardware PWM channel.
+     * @return The pin holding the channel, or null if it is free.
+     */
+    public static synchronized @Nullable PinIdentifier getHolder(final int channel) {
+        board();
+        return channel < 0 || channel >= holders.length ? null : holders[channel];
+    }
+
+    /**
+     * @param pin The pin.
+     * @return True if the pin currently holds its hardware channel, otherwise false.
+     */
+    public static synchronized boolean isHardware(@NotNull final PinIdentifier pin) {
+        final int channel = board().channelOf(pin);
+        return channel >= 0 && holders[channel] == pin;
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The other pin holding the hardware channel of the given pin, or null if there is no conflict.
+     */
+    public static synchronized @Nullable PinIdentifier getConflict(@NotNull final PinIdentifier pin) {
+        final int channel = board().channelOf(pin);
+        if (channel < 0 || holders[channel] == pin) return null;
+        return holders[channel];
+    }
+}
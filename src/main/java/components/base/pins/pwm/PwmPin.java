@@ -4,8 +4,10 @@ import com.pi4j.context.Context;
 import com.pi4j.io.pwm.Pwm;
 import com.pi4j.io.pwm.PwmPreset;
 import com.pi4j.io.pwm.PwmType;
+import components.base.metrics.Metrics;
 import components.base.pins.Pin;
-import components.base.pins.components.GpioType;
+import components.base.pins.PinRegistry;
+import components.base.pins.PinValidator;
 import components.base.pins.components.PinIdentifier;
 import lombok.SneakyThrows;
 import org.jetbrains.annotations.NotNull;
@@ -23,25 +25,70 @@ public class PwmPin extends Pin {
     private final PwmType type;
 
     public PwmPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin) throws IllegalStateException,IllegalArgumentException {
+        this(pi4j,pin,50);
+    }
+
+    /**
+     * Create a new PWM Pin. Hardware PWM is used whenever the pin has a free hardware channel, see {@link PwmAllocator}.
+     * @param pi4j The Pi4J Context.
+     * @param pin The Pin Identifier to assign.
+     * @param hz The initial frequency, used to decide whether falling back to software PWM is worth a warning.
+     * @throws IllegalArgumentException If the frequency is negative, or too high for the PWM the pin is given.
+     */
+    public PwmPin(@NotNull final Context pi4j, @NotNull final PinIdentifier pin, final int hz) throws IllegalStateException,IllegalArgumentException {
         super(pi4j,pin);
-        type = identifier.getGpioType().equals(GpioType.HW_PWM) ? PwmType.HARDWARE : PwmType.SOFTWARE;
-        final int pinNumber = pin.getPin();
-        this.pin = pi4j.create(Pwm.newConfigBuilder(pi4j)
-                .id("PWM_PIN#%d".formatted(pinNumber))
-                .name("Pin %d".formatted(pinNumber))
-                .address(pinNumber)
-                .pwmType(type)
-                .frequency(frequency)
-                .initial(dutyCycle)
-                .shutdown(0)
-                .build());
+        if (hz < 0 || hz > PinValidator.maximumHardwareFrequency) {
+            PinRegistry.release(pin,owner);
+            if (hz < 0) throw new IllegalArgumentException("The frequency cannot physically be less than zero!");
+            throw new IllegalArgumentException("A hardware enabled PWM pin cannot exceed a frequency of %d!".formatted(PinValidator.maximumHardwareFrequency));
+        }
+        this.type = PwmAllocator.allocate(pin,hz,owner);
+        this.frequency = hz;
+        try {
+            if (type == PwmType.SOFTWARE && hz > PinValidator.maximumSoftwareFrequency) throw new IllegalArgumentException("A software enabled PWM pin cannot exceed a frequency of %d!".formatted(PinValidator.maximumSoftwareFrequency));
+            this.pin = pi4j.create(Pwm.newConfigBuilder(pi4j)
+                    .id(pin.getPwmId())
+                    .name(pin.getName())
+                    .address(pin.getBcm())
+                    .pwmType(type)
+                    .frequency(frequency)
+                    .initial(dutyCycle)
+                    .shutdown(0)
+                    .build());
+        } catch (final RuntimeException exception) {
+            PwmAllocator.release(pin,owner);
+            PinRegistry.release(pin,owner);
+            throw exception;
+        }
+    }
+
+    /**
+     * @return Whether the pin runs hardware or software PWM.
+     */
+    public PwmType getType() {
+        return type;
+    }
+
+    /**
+     * Set the duty cycle of the PWM.
+     * @param value The duty cycle, between 0 and 100.
+     * @throws IllegalArgumentException If the duty cycle is less than 0 or more than 100.
+     */
+    public void setDutyCycle(final float value) throws IllegalArgumentException {
+        setDutyCycle(value,false);
+    }
+
+    public float getDutyCycle() {
+        return dutyCycle;
     }
 
     public void setDutyCycle(final float value, final boolean force) throws IllegalArgumentException {
         if (value < 0 || value > 100) throw new IllegalArgumentException("A duty cycle cannot physically be more than 100 or less than 0!");
         dutyCycle = value;
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
         pin.setDutyCycle(dutyCycle);
         if (force) pin.on(value);
+        if (Metrics.enabled) metrics.write(start);
     }
 
     /**
@@ -69,9 +116,7 @@ public class PwmPin extends Pin {
      */
     @SneakyThrows
     public PwmPin frequency(final int hz, final boolean force) throws IllegalArgumentException {
-        if (hz < 0) throw new IllegalArgumentException("The frequency cannot physically be less than zero!");
-        else if (type == PwmType.SOFTWARE && hz > 5000) throw new IllegalArgumentException("A software enabled PWM pin cannot exceed a frequency of 5000!");
-        else if (hz > 100000) throw new IllegalArgumentException("A hardware enabled PWM pin cannot exceed a frequency of 100,000!");
+        validateFrequency(hz);
         this.frequency = hz;
         pin.frequency(hz);
         if (force) pin.on();
@@ -96,15 +141,52 @@ public class PwmPin extends Pin {
     }
 
     public void on(final Number dutyCycle) {
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
         pin.on(dutyCycle);
+        if (Metrics.enabled) metrics.write(start);
     }
 
     public void on(final Number dutyCycle, final int frequency) {
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
+        pin.on(dutyCycle, frequency);
+        if (Metrics.enabled) metrics.write(start);
+    }
+
+    /**
+     * Turn the PWM on with the given duty cycle.
+     * Unlike {@link #on(Number)}, the duty cycle is validated and remembered as a primitive.
+     * @param dutyCycle The duty cycle, between 0 and 100.
+     * @throws IllegalArgumentException If the duty cycle is less than 0 or more than 100.
+     * @apiNote Calls passing a primitive, such as <code>on(50)</code>, resolve to this overload rather than {@link #on(Number)},
+     * so their duty cycle is validated and remembered.
+     */
+    public void on(final float dutyCycle) throws IllegalArgumentException {
+        setDutyCycle(dutyCycle,true);
+    }
+
+    /**
+     * Turn the PWM on with the given duty cycle and frequency.
+     * @param dutyCycle The duty cycle, between 0 and 100.
+     * @param frequency The frequency.
+     * @throws IllegalArgumentException If the duty cycle is less than 0 or more than 100.
+     * @throws IllegalArgumentException If the frequency is invalid, as for {@link #frequency(int, boolean)}.
+     * @apiNote Calls passing primitives, such as <code>on(50,1000)</code>, resolve to this overload rather than {@link #on(Number, int)},
+     * so their duty cycle and frequency are validated and remembered.
+     */
+    public void on(final float dutyCycle, final int frequency) throws IllegalArgumentException {
+        isValidDutyCycle(dutyCycle);
+        validateFrequency(frequency);
+        this.dutyCycle = dutyCycle;
+        this.frequency = frequency;
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
         pin.on(dutyCycle, frequency);
+        if (Metrics.enabled) metrics.write(start);
     }
 
     public void on() {
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
         pin.on();
+        if (Metrics.enabled) metrics.write(start);
     }
 
     public boolean isOn() {
@@ -116,13 +198,53 @@ public class PwmPin extends Pin {
     }
 
     public void off() {
+        final long start = Metrics.enabled ? System.nanoTime() : 0;
         pin.off();
+        if (Metrics.enabled) metrics.write(start);
     }
 
     public boolean isOff() {
         return pin.isOff();
     }
 
+    /**
+     * Play a waveform on the pin, from the shared {@link WaveformPlayer}. Replaces any waveform already playing.
+     * @param waveform The waveform.
+     * @param loop True if the waveform should repeat until stopped, otherwise false.
+     * @return The playing channel.
+     */
+    public WaveformPlayer.Channel play(@NotNull final Waveform waveform, final boolean loop) {
+        return WaveformPlayer.shared().play(this,waveform,loop);
+    }
+
+    /**
+     * Stop the waveform playing on the pin, leaving it at its current duty cycle.
+     * @return True if a waveform was stopped, otherwise false.
+     */
+    public boolean stopWaveform() {
+        return WaveformPlayer.shared().stop(this);
+    }
+
+    public boolean isPlayingWaveform() {
+        return WaveformPlayer.shared().getChannel(this) != null;
+    }
+
+    /**
+     * Stop the waveform playing on the pin from the shared {@link WaveformPlayer}, turn the PWM off,
+     * and release its hardware channel from the {@link PwmAllocator}.
+     */
+    @Override
+    protected void shutdown() {
+        try {
+            stopWaveform();
+            pin.off();
+            dutyCycle = 0;
+            shutdown(pin);
+        } finally {
+            PwmAllocator.release(identifier,owner);
+        }
+    }
+
     public Map<String,PwmPreset> presets() {
         return pin.getPresets();
     }
@@ -155,6 +277,12 @@ public class PwmPin extends Pin {
         return pin.getAddress();
     }
 
+    private void validateFrequency(final int hz) throws IllegalArgumentException {
+        if (hz < 0) throw new IllegalArgumentException("The frequency cannot physically be less than zero!");
+        else if (type == PwmType.SOFTWARE && hz > PinValidator.maximumSoftwareFrequency) throw new IllegalArgumentException("A software enabled PWM pin cannot exceed a frequency of %d!".formatted(PinValidator.maximumSoftwareFrequency));
+        else if (hz > PinValidator.maximumHardwareFrequency) throw new IllegalArgumentException("A hardware enabled PWM pin cannot exceed a frequency of %d!".formatted(PinValidator.maximumHardwareFrequency));
+    }
+
     private boolean isValidDutyCycle(final float amount) throws IllegalArgumentException {
         if (amount > 100) throw new IllegalArgumentException("A duty cycle cannot physically be more than 100!");
         else if (amount < 0) throw new IllegalArgumentException("A duty cycle cannot physically be less than 0!");
@@ -0,0 +1,218 @@
+package components.base.pins.pwm;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A duty cycle waveform, precomputed into a primitive table of duty cycles played back one step at a time.<br>
+ * Waveforms are immutable, and can be shared by any number of pins. Every transformation returns a new waveform.
+ * <li><b>Ramps:</b> Linear and exponential ramps between two duty cycles, for fades and soft-starts.</li>
+ * <li><b>Periodic:</b> Sine, triangle and sawtooth waves, for breathing and pulsing effects.</li>
+ * <li><b>Tables:</b> Any user supplied table of duty cycles.</li>
+ * <li><b>Gamma:</b> {@link #gamma(double)} corrects a waveform for the non-linear brightness perception of LEDs.</li>
+ * All duty cycles are between 0 and 100.
+ */
+@SuppressWarnings("unused")
+public final class Waveform {
+
+    public static final double defaultLedGamma = 2.2;
+
+    private final float[] table;
+    private final long stepNanos;
+
+    private Waveform(@NotNull final float[] table, final long stepNanos) {
+        this.table = table;
+        this.stepNanos = stepNanos;
+    }
+
+    private static int steps(final double seconds, final double hz) throws IllegalArgumentException {
+        if (!(seconds > 0)) throw new IllegalArgumentException("The duration of a waveform must be more than 0!");
+        else if (!(hz > 0)) throw new IllegalArgumentException("The step rate of a waveform must be more than 0!");
+        final double steps = Math.ceil(seconds * hz);
+        if (steps > 1 << 24) throw new IllegalArgumentException("A waveform cannot exceed %d steps!".formatted(1 << 24));
+        return (int) Math.max(1, steps);
+    }
+
+    private static long stepNanos(final double hz) {
+        return Math.round(TimeUnit.SECONDS.toNanos(1) / hz);
+    }
+
+    private static void checkDutyCycle(final double dutyCycle) throws IllegalArgumentException {
+        if (!(dutyCycle >= 0 && dutyCycle <= 100)) throw new IllegalArgumentException("A duty cycle cannot physically be more than 100 or less than 0!");
+    }
+
+    /**
+     * Create a waveform from a table of duty cycles.
+     *
+     * @param hz         The rate at which the steps are played.
+     * @param dutyCycles The duty cycles, between 0 and 100. The array is copied.
+     * @return The new Waveform.
+     * @throws IllegalArgumentException If the table is empty, the rate is not positive, or a duty cycle is out of range.
+     */
+    public static @NotNull Waveform table(final double hz, @NotNull final float... dutyCycles) throws IllegalArgumentException {
+        if (dutyCycles.length == 0) throw new IllegalArgumentException("A waveform must have at least one step!");
+        else if (!(hz > 0)) throw new IllegalArgumentException("The step rate of a waveform must be more than 0!");
+        for (final float dutyCycle : dutyCycles) checkDutyCycle(dutyCycle);
+        return new Waveform(dutyCycles.clone(),stepNanos(hz));
+    }
+
+    /**
+     * Create a constant duty cycle, held for the given time.
+     */
+    public static @NotNull Waveform constant(final float dutyCycle, final double seconds, final double hz) throws IllegalArgumentException {
+        checkDutyCycle(dutyCycle);
+        final float[] table = new float[steps(seconds,hz)];
+        Arrays.fill(table, dutyCycle);
+        return new Waveform(table,stepNanos(hz));
+    }
+
+    /**
+     * Create a linear ramp. The last step is exactly the end duty cycle.
+     *
+     * @param from    The duty cycle at the start.
+     * @param to      The duty cycle at the end.
+     * @param seconds The duration of the ramp.
+     * @param hz      The rate at which the steps are played.
+     * @return The new Waveform.
+     */
+    public static @NotNull Waveform linear(final float from, final float to, final double seconds, final double hz) throws IllegalArgumentException {
+        checkDutyCycle(from);
+        checkDutyCycle(to);
+        final float[] table = new float[steps(seconds,hz)];
+        for (int i = 0; i < table.length; i++) table[i] = (float) (from + (to - from) * (i + 1d) / table.length);
+        return new Waveform(table,stepNanos(hz));
+    }
+
+    /**
+     * Create an exponential ramp with a steepness of 4, starting slowly and finishing quickly.
+     */
+    public static @NotNull Waveform exponential(final float from, final float to, final double seconds, final double hz) throws IllegalArgumentException {
+        return exponential(from,to,seconds,hz,4);
+    }
+
+    /**
+     * Create an exponential ramp. The last step is exactly the end duty cycle.
+     *
+     * @param from      The duty cycle at the start.
+     * @param to        The duty cycle at the end.
+     * @param seconds   The duration of the ramp.
+     * @param hz        The rate at which the steps are played.
+     * @param steepness How sharply the ramp bends. Positive values start slowly, negative values start quickly.
+     * @return The new Waveform.
+     */
+    public static @NotNull Waveform exponential(final float from, final float to, final double seconds, final double hz, final double steepness) throws IllegalArgumentException {
+        if (steepness == 0) return linear(from,to,seconds,hz);
+        checkDutyCycle(from);
+        checkDutyCycle(to);
+        final float[] table = new float[steps(seconds,hz)];
+        final double scale = Math.expm1(steepness);
+        for (int i = 0; i < table.length; i++) table[i] = (float) (from + (to - from) * Math.expm1(steepness * (i + 1d) / table.length) / scale);
+        return new Waveform(table,stepNanos(hz));
+    }
+
+    /**
+     * Create one period of a sine wave, starting and ending at the minimum.
+     *
+     * @param minimum The lowest duty cycle.
+     * @param maximum The highest duty cycle.
+     * @param seconds The period of the wave.
+     * @param hz      The rate at which the steps are played.
+     * @return The new Waveform.
+     */
+    public static @NotNull Waveform sine(final float minimum, final float maximum, final double seconds, final double hz) throws IllegalArgumentException {
+        checkDutyCycle(minimum);
+        checkDutyCycle(maximum);
+        final float[] table = new float[steps(seconds,hz)];
+        for (int i = 0; i < table.length; i++) table[i] = (float) (minimum + (maximum - minimum) * (1 - Math.cos(2 * Math.PI * i / table.length)) / 2);
+        return new Waveform(table,stepNanos(hz));
+    }
+
+    /**
+     * Create one period of a triangle wave, starting and ending at the minimum.
+     */
+    public static @NotNull Waveform triangle(final float minimum, final float maximum, final double seconds, final double hz) throws IllegalArgumentException {
+        checkDutyCycle(minimum);
+        checkDutyCycle(maximum);
+        final float[] table = new float[steps(seconds,hz)];
+        for (int i = 0; i < table.length; i++) table[i] = (float) (minimum + (maximum - minimum) * (1 - Math.abs(1 - 2d * i / table.length)));
+        return new Waveform(table,stepNanos(hz));
+    }
+
+    /**
+     * Create one period of a sawtooth wave, rising from the minimum to the maximum.
+     */
+    public static @NotNull Waveform sawtooth(final float minimum, final float maximum, final double seconds, final double hz) throws IllegalArgumentException {
+        checkDutyCycle(minimum);
+        checkDutyCycle(maximum);
+        final float[] table = new float[steps(seconds,hz)];
+        for (int i = 0; i < table.length; i++) table[i] = (float) (minimum + (maximum - minimum) * (i + 1d) / table.length);
+        return new Waveform(table,stepNanos(hz));
+    }
+
+    /**
+     * Apply gamma correction, mapping every duty cycle d onto 100 * (d / 100) ^ gamma.
+     *
+     * @param gamma The gamma, usually {@link #defaultLedGamma} for LEDs.
+     * @return The corrected Waveform.
+     * @throws IllegalArgumentException If the gamma is not positive.
+     */
+    public @NotNull Waveform gamma(final double gamma) throws IllegalArgumentException {
+        if (!(gamma > 0)) throw new IllegalArgumentException("The gamma must be more than 0!");
+        final float[] corrected = new float[table.length];
+        for (int i = 0; i < table.length; i++) corrected[i] = (float) (100 * Math.pow(table[i] / 100d, gamma));
+        return new Waveform(corrected,stepNanos);
+    }
+
+    /**
+     * @return A waveform playing this waveform backwards.
+     */
+    public @NotNull Waveform reversed() {
+        final float[] reversed = new float[table.length];
+        for (int i = 0; i < table.length; i++) reversed[i] = table[table.length - 1 - i];
+        return new Waveform(reversed,stepNanos);
+    }
+
+    /**
+     * Append another waveform, which is resampled to the step rate of this waveform.
+     *
+     * @param next The waveform played after this one.
+     * @return The combined Waveform.
+     */
+    public @NotNull Waveform then(@NotNull final Waveform next) {
+        final int steps = (int) Math.max(1, Math.round((double) next.table.length * next.stepNanos / stepNanos));
+        final float[] combined = Arrays.copyOf(table, table.length + steps);
+        for (int i = 0; i < steps; i++) combined[table.length + i] = next.table[(int) Math.min(next.table.length - 1, (long) i * stepNanos / next.stepNanos)];
+        return new Waveform(combined,stepNanos);
+    }
+
+    /**
+     * @return The number of steps in the waveform.
+     */
+    public int length() {
+        return table.length;
+    }
+
+    /**
+     * @return The time between steps, in nanoseconds.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * @return The duration of the waveform, in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return stepNanos * table.length;
+    }
+
+    /**
+     * @param step The step of the waveform.
+     * @return The duty cycle at the given step.
+     */
+    public float dutyCycle(final int step) {
+        return table[step];
+    }
+}
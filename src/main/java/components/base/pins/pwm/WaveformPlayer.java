@@ -0,0 +1,220 @@
+package components.base.pins.pwm;
+
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays {@link Waveform}s on any number of PWM pins, from a single periodic task on the {@link ActuationScheduler}.<br>
+ * Every tick, each channel looks up the step of its waveform from the player's clock, and writes the
+ * duty cycle only if it differs from the last one written. Waveforms with a step rate different from the player's
+ * rate are sampled, not interpolated, so the player should tick at least as fast as the fastest waveform.
+ * <li><b>Looping waveforms:</b> Anchored to the player's clock, so pins playing the same waveform stay in step
+ * with each other, offset only by their phase, no matter when each was started.</li>
+ * <li><b>Non-looping waveforms:</b> Start from their phase on the first tick after being played.</li>
+ * The periodic task, and with it the clock, only runs while at least one channel is playing.<br>
+ * A pin plays at most one waveform at a time: playing a new waveform on a pin replaces the old one.
+ */
+@SuppressWarnings("unused")
+public final class WaveformPlayer implements AutoCloseable {
+
+    public static final double defaultRate = 200;
+
+    private static WaveformPlayer shared;
+
+    public final class Channel {
+
+        private final PwmPin pin;
+        private final Waveform waveform;
+        private final boolean loop;
+        private final Runnable onFinish;
+        private final long origin;
+
+        private int lastStep = -1;
+        private volatile boolean playing = true;
+
+        private Channel(@NotNull final PwmPin pin, @NotNull final Waveform waveform, final boolean loop, final long offset, @Nullable final Runnable onFinish) {
+            this.pin = pin;
+            this.waveform = waveform;
+            this.loop = loop;
+            this.onFinish = onFinish;
+            this.origin = (loop ? 0 : clock) - offset;
+        }
+
+        private boolean advance() {
+            long position = clock - origin;
+            final long duration = waveform.getDurationNanos();
+            if (position >= duration) {
+                if (!loop) {
+                    final float last = waveform.dutyCycle(waveform.length() - 1);
+                    if (pin.getDutyCycle() != last) pin.on(last);
+                    return false;
+                }
+                position %= duration;
+            }
+            final int step = (int) (position / waveform.getStepNanos());
+            if (step != lastStep) {
+                lastStep = step;
+                final float dutyCycle = waveform.dutyCycle(step);
+                if (pin.getDutyCycle() != dutyCycle) {
+                    pin.on(dutyCycle);
+                    writes++;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Stop the waveform, leaving the pin at its current duty cycle.
+         */
+        public void stop() {
+            playing = false;
+            channels.remove(this);
+        }
+
+        public boolean isPlaying() {
+            return playing;
+        }
+
+        public @NotNull PwmPin getPin() {
+            return pin;
+        }
+
+        public @NotNull Waveform getWaveform() {
+            return waveform;
+        }
+    }
+
+    private final long period;
+    private final CopyOnWriteArrayList<Channel> channels = new CopyOnWriteArrayList<>();
+    private Timeout timeout;
+    private long clock = 0;
+    private long writes = 0;
+
+    /**
+     * Create a new Waveform Player.
+     *
+     * @param hz The rate at which the player ticks.
+     * @throws IllegalArgumentException If the rate is not positive, or faster than the scheduler ticks.
+     */
+    public WaveformPlayer(final double hz) throws IllegalArgumentException {
+        if (!(hz > 0)) throw new IllegalArgumentException("The rate of a waveform player must be more than 0!");
+        this.period = Math.round(TimeUnit.SECONDS.toNanos(1) / hz);
+        if (period < ActuationScheduler.wheel().getTickDuration()) throw new IllegalArgumentException("The rate of a waveform player cannot be faster than the ticks of the Actuation Scheduler!");
+    }
+
+    /**
+     * @return The player used by {@link PwmPin#play(Waveform, boolean)}, ticking at {@link #defaultRate}.
+     */
+    public static synchronized @NotNull WaveformPlayer shared() {
+        if (shared == null) shared = new WaveformPlayer(defaultRate);
+        return shared;
+    }
+
+    public @NotNull Channel play(@NotNull final PwmPin pin, @NotNull final Waveform waveform, final boolean loop) {
+        return play(pin,waveform,loop,0,null);
+    }
+
+    /**
+     * Play a waveform on a pin, replacing any waveform the pin is already playing.
+     *
+     * @param pin      The pin to play the waveform on.
+     * @param waveform The waveform.
+     * @param loop     True if the waveform should repeat until stopped, otherwise false.
+     * @param phase    The fraction of the waveform to start at, between 0 and 1. Pins looping the same waveform
+     *                 with different phases stay in step with each other, offset by the phase.
+     * @param onFinish Run on the scheduler's thread once a non-looping waveform has finished, or null.
+     * @return The playing channel, which can be used to stop the waveform.
+     * @throws IllegalArgumentException If the phase is not between 0 and 1.
+     */
+    public synchronized @NotNull Channel play(@NotNull final PwmPin pin, @NotNull final Waveform waveform, final boolean loop,
+                                              final double phase, @Nullable final Runnable onFinish) throws IllegalArgumentException {
+        if (!(phase >= 0 && phase <= 1)) throw new IllegalArgumentException("The phase must be between 0 and 1!");
+        stop(pin);
+        final Channel channel = new Channel(pin,waveform,loop,Math.round(phase * waveform.getDurationNanos()),onFinish);
+        channels.add(channel);
+        if (timeout == null || !timeout.isPending()) timeout = ActuationScheduler.scheduleAtFixedRate(this::tick,0,period,TimeUnit.NANOSECONDS);
+        return channel;
+    }
+
+    /**
+     * Stop the waveform playing on a pin, if any.
+     *
+     * @param pin The pin.
+     * @return True if a waveform was stopped, otherwise false.
+     */
+    public boolean stop(@NotNull final PwmPin pin) {
+        for (final Channel channel : channels) {
+            if (channel.pin == pin) {
+                channel.stop();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The channel playing on the pin, or null if the pin is not playing a waveform.
+     */
+    public @Nullable Channel getChannel(@NotNull final PwmPin pin) {
+        for (final Channel channel : channels) if (channel.pin == pin) return channel;
+        return null;
+    }
+
+    private synchronized void tick() {
+        for (final Channel channel : channels) {
+            if (!channel.playing || channel.advance()) continue;
+            channel.playing = false;
+            channels.remove(channel);
+            if (channel.onFinish != null) channel.onFinish.run();
+        }
+        clock += period;
+        if (channels.isEmpty() && timeout != null) {
+            timeout.cancel();
+            timeout = null;
+            clock = 0;
+        }
+    }
+
+    /**
+     * Stop all waveforms.
+     */
+    public synchronized void stopAll() {
+        for (final Channel channel : channels) channel.playing = false;
+        channels.clear();
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+        clock = 0;
+    }
+
+    /**
+     * @return The number of channels currently playing.
+     */
+    public int size() {
+        return channels.size();
+    }
+
+    /**
+     * @return The tick period in nanoseconds.
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The number of duty cycle writes made by the player.
+     */
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    @Override
+    public void close() {
+        stopAll();
+    }
+}
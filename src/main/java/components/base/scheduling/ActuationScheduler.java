@@ -0,0 +1,73 @@
+package components.base.scheduling;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The library-wide scheduler for actuator commands, such as delayed servo commands and fixed-rate control loops.<br>
+ * All actuators share a single {@link TimerWheel}, ticking every millisecond on one thread, instead of each
+ * owning their own executors. Commands run directly on the wheel's thread, and must therefore not block.<br>
+ * The scheduler is started lazily, and can be closed to stop its thread and cancel all pending commands.
+ * Scheduling a command after closing starts a new wheel.
+ */
+@SuppressWarnings("unused")
+public final class ActuationScheduler {
+
+    private static TimerWheel wheel;
+
+    private ActuationScheduler() {}
+
+    /**
+     * @return The wheel driving all actuator commands.
+     */
+    public static synchronized @NotNull TimerWheel wheel() {
+        if (wheel == null || !wheel.isRunning()) wheel = new TimerWheel("rpi-actuation");
+        return wheel;
+    }
+
+    /**
+     * Run a command once, after the given delay.
+     *
+     * @param command The command to run.
+     * @param delay   The delay before the command is run.
+     * @param unit    The unit of the delay.
+     * @return A handle which can be used to cancel the command.
+     */
+    public static @NotNull Timeout schedule(@NotNull final Runnable command, final long delay, @NotNull final TimeUnit unit) {
+        return wheel().schedule(command,delay,unit);
+    }
+
+    /**
+     * Run a command repeatedly at a fixed rate, starting after the initial delay.
+     *
+     * @param command      The command to run.
+     * @param initialDelay The delay before the command is run the first time.
+     * @param period       The time between the start of each run.
+     * @param unit         The unit of the delay and period.
+     * @return A handle which can be used to cancel the command.
+     * @throws IllegalArgumentException If the period is less than 1.
+     */
+    public static @NotNull Timeout scheduleAtFixedRate(@NotNull final Runnable command, final long initialDelay, final long period, @NotNull final TimeUnit unit) throws IllegalArgumentException {
+        return wheel().scheduleAtFixedRate(command,initialDelay,period,unit);
+    }
+
+    /**
+     * @return The number of commands currently pending.
+     */
+    public static synchronized int pending() {
+        return wheel == null ? 0 : wheel.pending();
+    }
+
+    public static synchronized boolean isRunning() {
+        return wheel != null && wheel.isRunning();
+    }
+
+    /**
+     * Stop the scheduler's thread, cancelling all pending commands.
+     */
+    public static synchronized void close() {
+        if (wheel != null) wheel.close();
+        wheel = null;
+    }
+}
@@ -0,0 +1,86 @@
+package components.base.scheduling;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Handle to a task scheduled on a {@link TimerWheel}.
+ */
+@SuppressWarnings("unused")
+public final class Timeout {
+
+    private static final int scheduled = 0;
+    private static final int cancelled = 1;
+    private static final int expired = 2;
+
+    private static final AtomicIntegerFieldUpdater<Timeout> stateUpdater = AtomicIntegerFieldUpdater.newUpdater(Timeout.class,"state");
+
+    final TimerWheel wheel;
+    final Runnable task;
+    final long period;
+    long deadline;
+    long remainingRounds;
+
+    Timeout next;
+    Timeout previous;
+    TimerWheel.Bucket bucket;
+
+    private volatile int state = scheduled;
+
+    Timeout(@NotNull final TimerWheel wheel, @NotNull final Runnable task, final long deadline, final long period) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadline = deadline;
+        this.period = period;
+    }
+
+    /**
+     * Cancel the task. A task that is currently running will finish, but will not run again.
+     *
+     * @return True if the task was cancelled, false if it had already expired or been cancelled.
+     */
+    public boolean cancel() {
+        if (!stateUpdater.compareAndSet(this,scheduled,cancelled)) return false;
+        wheel.cancelled();
+        return true;
+    }
+
+    boolean expire() {
+        return period > 0 ? state == scheduled : stateUpdater.compareAndSet(this,scheduled,expired);
+    }
+
+    public boolean isCancelled() {
+        return state == cancelled;
+    }
+
+    /**
+     * @return True if the task is still going to run, that is it has neither been cancelled nor expired,
+     * and its wheel has not been closed. Closing a wheel cancels its tasks asynchronously, on its own thread.
+     */
+    public boolean isPending() {
+        return state == scheduled && wheel.isRunning();
+    }
+
+    /**
+     * @return True if a one-shot task has run. Periodic tasks never expire, they can only be cancelled.
+     */
+    public boolean isExpired() {
+        return state == expired;
+    }
+
+    public boolean isPeriodic() {
+        return period > 0;
+    }
+
+    /**
+     * @return The period of the task in nanoseconds, or 0 if the task is a one-shot task.
+     */
+    public long getPeriod() {
+        return period;
+    }
+
+    public @NotNull TimerWheel getWheel() {
+        return wheel;
+    }
+}
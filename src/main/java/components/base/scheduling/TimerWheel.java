@@ -0,0 +1,260 @@
+package components.base.scheduling;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel, driving any number of one-shot and periodic tasks from a single thread.<br>
+ * Time is divided into ticks of a fixed duration, and every task is placed in the bucket of the tick it is due in.
+ * Scheduling and cancelling a task are constant-time operations, which makes the wheel well suited for
+ * large numbers of short timers, such as debouncing hundreds of inputs, where one scheduled task per timer
+ * would be too expensive.<br>
+ * Tasks run on the wheel's own thread, in the order of their buckets, and should therefore be kept short.
+ * A task is never run before its deadline, but may run up to one tick after it.
+ * Periodic tasks run at a fixed rate. Should a periodic task throw an exception, it is cancelled.
+ */
+@SuppressWarnings("unused")
+public final class TimerWheel implements AutoCloseable {
+
+    public static final long defaultTickNanos = TimeUnit.MILLISECONDS.toNanos(1);
+    public static final int defaultWheelSize = 512;
+
+    private static TimerWheel shared;
+
+    static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(@NotNull final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) head = tail = timeout;
+            else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        private Timeout remove(@NotNull final Timeout timeout) {
+            final Timeout next = timeout.next;
+            if (timeout.previous != null) timeout.previous.next = next;
+            if (next != null) next.previous = timeout.previous;
+            if (timeout == head) head = next;
+            if (timeout == tail) tail = timeout.previous;
+            timeout.next = null;
+            timeout.previous = null;
+            timeout.bucket = null;
+            return next;
+        }
+    }
+
+    private final String name;
+    private final long tickDuration;
+    private final int mask;
+    private final Bucket[] buckets;
+    private final ConcurrentLinkedQueue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private final long startTime;
+
+    private volatile boolean running = true;
+    private long tick = 0;
+
+    public TimerWheel(@NotNull final String name) {
+        this(name,defaultTickNanos,TimeUnit.NANOSECONDS,defaultWheelSize);
+    }
+
+    /**
+     * Create and start a new Timer Wheel.
+     *
+     * @param name         The name of the wheel's thread.
+     * @param tickDuration The duration of a single tick.
+     * @param unit         The unit of the tick duration.
+     * @param wheelSize    The number of buckets. Rounded up to the nearest power of two.
+     * @throws IllegalArgumentException If the tick duration or wheel size is less than 1.
+     */
+    public TimerWheel(@NotNull final String name, final long tickDuration, @NotNull final TimeUnit unit, final int wheelSize) throws IllegalArgumentException {
+        if (tickDuration < 1) throw new IllegalArgumentException("The tick duration of a Timer Wheel cannot be less than 1!");
+        else if (wheelSize < 1 || wheelSize > 1 << 30) throw new IllegalArgumentException("The size of a Timer Wheel must be between 1 and 2^30!");
+        this.name = name;
+        this.tickDuration = unit.toNanos(tickDuration);
+        final int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) buckets[i] = new Bucket();
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run,name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Get the library-wide Timer Wheel, ticking every millisecond.
+     * Should the shared wheel have been closed, a new one is started.
+     *
+     * @return The shared Timer Wheel.
+     */
+    public static synchronized @NotNull TimerWheel shared() {
+        if (shared == null || !shared.running) shared = new TimerWheel("rpi-timer-wheel");
+        return shared;
+    }
+
+    /**
+     * Run a task once, after the given delay.
+     *
+     * @param task  The task to run.
+     * @param delay The delay before the task is run.
+     * @param unit  The unit of the delay.
+     * @return A handle to the scheduled task.
+     * @throws IllegalStateException If the wheel has been closed.
+     */
+    public @NotNull Timeout schedule(@NotNull final Runnable task, final long delay, @NotNull final TimeUnit unit) throws IllegalStateException {
+        return submit(task,delay,0,unit);
+    }
+
+    /**
+     * Run a task repeatedly at a fixed rate, starting after the initial delay.
+     *
+     * @param task         The task to run.
+     * @param initialDelay The delay before the task is run the first time.
+     * @param period       The time between the start of each run.
+     * @param unit         The unit of the delay and period.
+     * @return A handle to the scheduled task.
+     * @throws IllegalArgumentException If the period is less than 1.
+     * @throws IllegalStateException    If the wheel has been closed.
+     */
+    public @NotNull Timeout scheduleAtFixedRate(@NotNull final Runnable task, final long initialDelay, final long period, @NotNull final TimeUnit unit) throws IllegalArgumentException, IllegalStateException {
+        if (period < 1) throw new IllegalArgumentException("The period of a periodic task cannot be less than 1!");
+        return submit(task,initialDelay,unit.toNanos(period),unit);
+    }
+
+    private Timeout submit(final Runnable task, final long delay, final long period, final TimeUnit unit) {
+        if (!running) throw new IllegalStateException("Timer Wheel '%s' has been closed!".formatted(name));
+        final long deadline = System.nanoTime() - startTime + Math.max(0,unit.toNanos(delay));
+        final Timeout timeout = new Timeout(this,task,deadline,period);
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        if (!running) {
+            // The wheel closed after running was checked, and may already have cancelled what it found incoming.
+            timeout.cancel();
+            throw new IllegalStateException("Timer Wheel '%s' has been closed!".formatted(name));
+        }
+        return timeout;
+    }
+
+    void cancelled() {
+        pending.decrementAndGet();
+    }
+
+    private void run() {
+        while (running) {
+            final long sleep = startTime + tickDuration * (tick + 1) - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this,sleep);
+                continue;
+            }
+            transferIncoming();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+        for (final Bucket bucket : buckets) {
+            Timeout timeout = bucket.head;
+            while (timeout != null) {
+                timeout.cancel();
+                timeout = bucket.remove(timeout);
+            }
+        }
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) timeout.cancel();
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) if (!timeout.isCancelled()) place(timeout,tick);
+    }
+
+    private void place(@NotNull final Timeout timeout, final long earliestTick) {
+        final long due = Math.max(timeout.deadline / tickDuration, earliestTick);
+        timeout.remainingRounds = (due - earliestTick) / buckets.length;
+        buckets[(int) (due & mask)].add(timeout);
+    }
+
+    private void expire(@NotNull final Bucket bucket) {
+        Timeout rescheduled = null;
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            if (timeout.isCancelled()) {
+                timeout = bucket.remove(timeout);
+            } else if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                timeout = timeout.next;
+            } else {
+                final Timeout current = timeout;
+                timeout = bucket.remove(current);
+                if (!current.expire()) continue;
+                if (!current.isPeriodic()) pending.decrementAndGet();
+                if (!execute(current)) current.cancel();
+                else if (current.isPeriodic() && !current.isCancelled()) {
+                    current.deadline += current.period;
+                    current.next = rescheduled;
+                    rescheduled = current;
+                }
+            }
+        }
+        while (rescheduled != null) {
+            final Timeout next = rescheduled.next;
+            rescheduled.next = null;
+            place(rescheduled,tick + 1);
+            rescheduled = next;
+        }
+    }
+
+    private boolean execute(@NotNull final Timeout timeout) {
+        try {
+            timeout.task.run();
+            return true;
+        } catch (Throwable t) {
+            worker.getUncaughtExceptionHandler().uncaughtException(worker,t);
+            return false;
+        }
+    }
+
+    /**
+     * @return The number of tasks currently scheduled on the wheel.
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    public @NotNull String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return True if the calling thread is the wheel's own thread.
+     */
+    public boolean isWheelThread() {
+        return Thread.currentThread() == worker;
+    }
+
+    /**
+     * Stop the wheel. All pending tasks are cancelled, and no new tasks can be scheduled.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+}
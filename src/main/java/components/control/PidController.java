@@ -0,0 +1,284 @@
+package components.control;
+
+import components.base.pins.analog.AnalogInputPin;
+import components.base.pins.analog.AnalogOutputPin;
+import components.base.pins.pwm.PwmPin;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import components.servo.Servo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A fixed-rate PID loop, reading a measurement and driving an output.<br>
+ * Every loop is a periodic task on the shared {@link ActuationScheduler}, so hundreds of loops can run in one process
+ * without a thread each. A tick does nothing but primitive arithmetic on the measurement, and never allocates.
+ * <li><b>Anti-windup:</b> The integral stops accumulating while the output is saturated in the direction of the error,
+ * and is itself kept within the output range.</li>
+ * <li><b>Derivative:</b> The derivative is taken of the measurement rather than the error, so setpoint changes do
+ * not kick the output, and is low-pass filtered to keep sensor noise from being amplified.</li>
+ * <li><b>Output clamping:</b> The output is kept within the configured range, by default the range of the output pin.</li>
+ * The controller keeps track of its own timing, reporting the jitter of its ticks, and the number of overruns:
+ * ticks which came at least one and a half periods late.
+ */
+@SuppressWarnings("unused")
+public final class PidController implements AutoCloseable {
+
+    private final DoubleSupplier input;
+    private final DoubleConsumer output;
+    private final long periodNanos;
+    private final double period;
+
+    private double kp = 0;
+    private double ki = 0;
+    private double kd = 0;
+    private double alpha = 1;
+    private double outputMinimum;
+    private double outputMaximum;
+    private double setpoint;
+
+    private double integral = 0;
+    private double derivative = 0;
+    private double lastMeasurement = Double.NaN;
+    private double lastOutput = 0;
+    private double lastError = 0;
+
+    private Timeout timeout;
+    private long lastTick = 0;
+
+    private volatile long ticks = 0;
+    private volatile long overruns = 0;
+    private volatile long lastJitter = 0;
+    private volatile long maximumJitter = 0;
+    private volatile long totalJitter = 0;
+
+    /**
+     * Create a new PID Controller.
+     *
+     * @param input         Supplies the measurement.
+     * @param output        Receives every output.
+     * @param hz            The loop rate.
+     * @param outputMinimum The lowest output.
+     * @param outputMaximum The highest output.
+     * @throws IllegalArgumentException If the loop rate is not positive or faster than the scheduler ticks,
+     *                                  or the output range is empty.
+     */
+    public PidController(@NotNull final DoubleSupplier input, @NotNull final DoubleConsumer output, final double hz,
+                         final double outputMinimum, final double outputMaximum) throws IllegalArgumentException {
+        if (!(hz > 0)) throw new IllegalArgumentException("The loop rate must be more than 0!");
+        this.input = input;
+        this.output = output;
+        this.periodNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / hz);
+        if (periodNanos < ActuationScheduler.wheel().getTickDuration()) throw new IllegalArgumentException("The loop rate cannot be faster than the ticks of the Actuation Scheduler!");
+        this.period = periodNanos / 1e9;
+        outputRange(outputMinimum,outputMaximum);
+    }
+
+    /**
+     * Create a controller driving an analog output, clamped to the output pin's range.
+     */
+    public static @NotNull PidController of(@NotNull final AnalogInputPin input, @NotNull final AnalogOutputPin output, final double hz) {
+        return new PidController(input::readDouble,value -> output.set((int) Math.round(value)),hz,output.getMinimumValue(),output.getMaximumValue());
+    }
+
+    /**
+     * Create a controller driving the duty cycle of a PWM pin, between 0 and 100.
+     */
+    public static @NotNull PidController of(@NotNull final AnalogInputPin input, @NotNull final PwmPin output, final double hz) {
+        return new PidController(input::readDouble,value -> output.on((float) value),hz,0,100);
+    }
+
+    /**
+     * Create a controller driving a servo, clamped to the given range.
+     */
+    public static @NotNull PidController of(@NotNull final AnalogInputPin input, @NotNull final Servo output, final double hz,
+                                            final int outputMinimum, final int outputMaximum) {
+        return new PidController(input::readDouble,value -> output.setInt((int) Math.round(value)),hz,outputMinimum,outputMaximum);
+    }
+
+    /**
+     * Set the gains of the controller. The integral is scaled into the output when it accumulates,
+     * so changing the integral gain does not make the output jump.
+     *
+     * @param kp The proportional gain.
+     * @param ki The integral gain, per second.
+     * @param kd The derivative gain, in seconds.
+     * @return The PID Controller Instance.
+     */
+    public synchronized PidController gains(final double kp, final double ki, final double kd) {
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+        return this;
+    }
+
+    /**
+     * Set the time constant of the low-pass filter on the derivative. Default is 0, which disables the filter.
+     *
+     * @param seconds The time constant, in seconds.
+     * @return The PID Controller Instance.
+     * @throws IllegalArgumentException If the time constant is negative.
+     */
+    public synchronized PidController derivativeFilter(final double seconds) throws IllegalArgumentException {
+        if (!(seconds >= 0)) throw new IllegalArgumentException("The derivative filter time constant cannot be less than 0!");
+        alpha = period / (seconds + period);
+        return this;
+    }
+
+    /**
+     * @param minimum The lowest output.
+     * @param maximum The highest output.
+     * @return The PID Controller Instance.
+     * @throws IllegalArgumentException If the minimum is more than the maximum.
+     */
+    public synchronized PidController outputRange(final double minimum, final double maximum) throws IllegalArgumentException {
+        if (!(minimum <= maximum)) throw new IllegalArgumentException("The output minimum cannot be more than the output maximum!");
+        outputMinimum = minimum;
+        outputMaximum = maximum;
+        integral = Math.clamp(integral,minimum,maximum);
+        return this;
+    }
+
+    public synchronized PidController setpoint(final double setpoint) {
+        this.setpoint = setpoint;
+        return this;
+    }
+
+    public synchronized double setpoint() {
+        return setpoint;
+    }
+
+    /**
+     * Clear the integral and derivative state, as if the controller was newly created.
+     */
+    public synchronized void reset() {
+        integral = 0;
+        derivative = 0;
+        lastMeasurement = Double.NaN;
+        lastTick = 0;
+    }
+
+    public synchronized void start() {
+        if (timeout != null && timeout.isPending()) return;
+        reset();
+        timeout = ActuationScheduler.scheduleAtFixedRate(this::tick,0,periodNanos,TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+    }
+
+    /**
+     * @return True if the controller is ticking. A controller whose tick threw, or whose scheduler was closed, has stopped.
+     */
+    public synchronized boolean isRunning() {
+        return timeout != null && timeout.isPending();
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private synchronized void tick() {
+        final long now = System.nanoTime();
+        if (lastTick != 0) {
+            final long interval = now - lastTick;
+            final long jitter = Math.abs(interval - periodNanos);
+            lastJitter = jitter;
+            totalJitter += jitter;
+            if (jitter > maximumJitter) maximumJitter = jitter;
+            if (interval > periodNanos + (periodNanos >>> 1)) overruns++;
+        }
+        lastTick = now;
+        ticks++;
+        output.accept(update(input.getAsDouble()));
+    }
+
+    /**
+     * Run one step of the controller by hand, with the nominal loop period.
+     * Useful for driving the controller from an existing loop, without starting it.
+     *
+     * @param measurement The measurement.
+     * @return The new output.
+     */
+    public synchronized double update(final double measurement) {
+        final double error = setpoint - measurement;
+
+        if (!Double.isNaN(lastMeasurement)) derivative += alpha * ((measurement - lastMeasurement) / period - derivative);
+        lastMeasurement = measurement;
+
+        final double proportional = kp * error;
+        final double differential = -kd * derivative;
+        final double accumulated = integral + ki * error * period;
+        final double unclamped = proportional + accumulated + differential;
+        // Only integrate while the output is not saturated in the direction of the error.
+        if (!(unclamped > outputMaximum && error > 0) && !(unclamped < outputMinimum && error < 0)) {
+            integral = Math.clamp(accumulated,outputMinimum,outputMaximum);
+        }
+
+        final double result = Math.clamp(proportional + integral + differential,outputMinimum,outputMaximum);
+        lastError = error;
+        lastOutput = result;
+        return result;
+    }
+
+    public synchronized double getLastOutput() {
+        return lastOutput;
+    }
+
+    public synchronized double getLastError() {
+        return lastError;
+    }
+
+    public synchronized double getIntegral() {
+        return integral;
+    }
+
+    /**
+     * @return The loop period in nanoseconds.
+     */
+    public long getPeriod() {
+        return periodNanos;
+    }
+
+    /**
+     * @return The number of ticks the controller has run.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return The number of ticks which came at least one and a half periods late.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * @return The deviation of the last tick interval from the loop period, in nanoseconds.
+     */
+    public long getLastJitter() {
+        return lastJitter;
+    }
+
+    /**
+     * @return The largest deviation of a tick interval from the loop period, in nanoseconds.
+     */
+    public long getMaximumJitter() {
+        return maximumJitter;
+    }
+
+    /**
+     * @return The mean deviation of the tick intervals from the loop period, in nanoseconds.
+     */
+    public double getMeanJitter() {
+        final long ticks = this.ticks;
+        return ticks < 2 ? 0 : (double) totalJitter / (ticks - 1);
+    }
+}
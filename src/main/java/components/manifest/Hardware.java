@@ -0,0 +1,108 @@
+package components.manifest;
+
+import components.DimmableLED;
+import components.LED;
+import components.base.ComponentRegistry;
+import components.base.pins.PinBatch;
+import components.base.pins.analog.AnalogInputPin;
+import components.base.pins.analog.AnalogOutputPin;
+import components.base.pins.digital.DigitalInputPin;
+import components.base.pins.digital.DigitalOutputPin;
+import components.base.pins.pwm.PwmPin;
+import components.servo.Servo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The components created from a {@link HardwareManifest}, looked up by the names given in the manifest.<br>
+ * The hardware owns every component, and closes them all, in parallel, when closed.
+ */
+@SuppressWarnings("unused")
+public final class Hardware implements AutoCloseable {
+
+    private final Map<String,Object> components;
+    private final PinBatch pins;
+    private final ComponentRegistry registry;
+
+    Hardware(@NotNull final Map<String,Object> components, @Nullable final PinBatch pins, @NotNull final ComponentRegistry registry) {
+        this.components = Collections.unmodifiableMap(new LinkedHashMap<>(components));
+        this.pins = pins;
+        this.registry = registry;
+    }
+
+    /**
+     * Get a component by name.
+     *
+     * @param name The name of the component in the manifest.
+     * @param type The type of the component.
+     * @return The component.
+     * @throws IllegalArgumentException If the manifest declares no component of the given name and type.
+     */
+    public <T> @NotNull T get(@NotNull final String name, @NotNull final Class<T> type) throws IllegalArgumentException {
+        final Object component = components.get(name);
+        if (component == null) throw new IllegalArgumentException("The manifest declares no component named '%s'!".formatted(name));
+        else if (!type.isInstance(component)) throw new IllegalArgumentException("'%s' is a %s, not a %s!".formatted(name,component.getClass().getSimpleName(),type.getSimpleName()));
+        return type.cast(component);
+    }
+
+    public @NotNull LED led(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,LED.class);
+    }
+
+    public @NotNull DimmableLED dimmableLed(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,DimmableLED.class);
+    }
+
+    public @NotNull Servo servo(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,Servo.class);
+    }
+
+    public @NotNull PwmPin pwm(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,PwmPin.class);
+    }
+
+    public @NotNull DigitalInputPin digitalInput(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,DigitalInputPin.class);
+    }
+
+    public @NotNull AnalogInputPin analogInput(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,AnalogInputPin.class);
+    }
+
+    public @NotNull DigitalOutputPin digitalOutput(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,DigitalOutputPin.class);
+    }
+
+    public @NotNull AnalogOutputPin analogOutput(@NotNull final String name) throws IllegalArgumentException {
+        return get(name,AnalogOutputPin.class);
+    }
+
+    /**
+     * @return The names of every component, ordered by their type in the manifest, such as led or servo, then by name.
+     */
+    public @NotNull Set<String> getNames() {
+        return components.keySet();
+    }
+
+    /**
+     * @return The batch the plain pins of the manifest were created through, with their initialization timings,
+     * or null if the manifest declares no plain pins.
+     */
+    public @Nullable PinBatch getPins() {
+        return pins;
+    }
+
+    /**
+     * Close every component, in parallel.
+     * @throws IllegalStateException If any component failed to close.
+     */
+    @Override
+    public void close() throws IllegalStateException {
+        registry.close();
+    }
+}
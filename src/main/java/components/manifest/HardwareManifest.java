@@ -0,0 +1,359 @@
+package components.manifest;
+
+import com.pi4j.context.Context;
+import com.pi4j.util.Console;
+import components.DimmableLED;
+import components.LED;
+import components.base.ComponentRegistry;
+import components.base.pins.Pin;
+import components.base.pins.PinBatch;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.pwm.PwmAllocator;
+import components.servo.Servo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A description of the hardware wired to the Raspberry Pi, loaded from a properties file, validated as a whole,
+ * and instantiated in one pass.<br>
+ * Every entry is keyed <code>&lt;type&gt;.&lt;name&gt;.&lt;property&gt;</code>, and names are unique across types.
+ * <li><b>led:</b> pin and alwaysOn, or dimmable, frequency and gamma for a {@link DimmableLED}.</li>
+ * <li><b>servo:</b> driver (NO_DRIVER, L298N or L9110H), min and max. Without a driver, pin and externalDac.
+ * With a driver, channelA, channelB and frequency, where a channel lists its pins separated by commas,
+ * in the order taken by {@link Servo.Builder.L298NBuilder#channelA} or {@link Servo.Builder.L9110HBuilder#channelA}.</li>
+ * <li><b>pwm:</b> pin and frequency.</li>
+ * <li><b>input, output:</b> pin and type, digital or analog. Analog pins take min, max and externalDac,
+ * digital outputs take alwaysOn.</li>
+ * Pins are given by physical number (12), name (PIN_12) or BCM number (GPIO18).
+ * <pre>
+ * led.status.pin = 11
+ * led.backlight.pin = GPIO18
+ * led.backlight.dimmable = true
+ * servo.wheels.driver = L298N
+ * servo.wheels.channelA = 32, 13, 15
+ * input.button.pin = 16
+ * </pre>
+ * Every pin is validated against its capabilities: it must be a GPIO pin used only once, and PWM frequencies must fit
+ * the hardware or software PWM the pin will get on the board, see {@link PwmAllocator}. Every problem is reported
+ * at once, and pins doubling as a bus or clock are warned about.<br>
+ * Compiled manifests can be cached in a binary form, keyed by a hash of the source and the board,
+ * so repeated starts skip parsing and validation, see {@link #load(Path, Path)}.
+ */
+@SuppressWarnings("unused")
+public final class HardwareManifest {
+
+    public enum Kind {
+        LED,
+        DIMMABLE_LED,
+        SERVO,
+        PWM,
+        DIGITAL_INPUT,
+        ANALOG_INPUT,
+        DIGITAL_OUTPUT,
+        ANALOG_OUTPUT
+    }
+
+    /**
+     * A single compiled entry of the manifest.
+     *
+     * @param name      The unique name.
+     * @param kind      The kind of component.
+     * @param driver    The driver of a servo, otherwise null.
+     * @param pins      The pins, in the order the component takes them.
+     * @param minimum   The minimum value, or {@link #unset} for the default.
+     * @param maximum   The maximum value, or {@link #unset} for the default.
+     * @param frequency The PWM frequency, or 0 if the component has no PWM.
+     * @param gamma     The gamma of a dimmable LED, otherwise 0.
+     * @param option    Whether a digital output or LED is always on, or whether an analog pin has an external DAC chip.
+     */
+    public record Declaration(@NotNull String name, @NotNull Kind kind, @Nullable Servo.Driver driver, @NotNull PinIdentifier[] pins,
+                              int minimum, int maximum, int frequency, double gamma, boolean option) {
+
+        public static final int unset = Integer.MIN_VALUE;
+
+        public Declaration {
+            pins = pins.clone();
+        }
+
+        @Override
+        public @NotNull PinIdentifier[] pins() {
+            return pins.clone();
+        }
+
+        private @Nullable Integer boxedMinimum() {
+            return minimum == unset ? null : minimum;
+        }
+
+        private @Nullable Integer boxedMaximum() {
+            return maximum == unset ? null : maximum;
+        }
+    }
+
+    private static final Console console = new Console();
+    private static final int magic = 0x5250494D;
+    private static final int formatVersion = 2;
+
+    private final List<Declaration> declarations;
+    private final List<String> warnings;
+
+    HardwareManifest(@NotNull final List<Declaration> declarations, @NotNull final List<String> warnings) {
+        this.declarations = List.copyOf(declarations);
+        this.warnings = List.copyOf(warnings);
+    }
+
+    /**
+     * Parse and validate a manifest.
+     *
+     * @param source The manifest, in properties format.
+     * @return The compiled manifest.
+     * @throws IllegalArgumentException If the manifest has any problems, listing all of them.
+     */
+    public static @NotNull HardwareManifest parse(@NotNull final String source) throws IllegalArgumentException {
+        return warn(ManifestParser.parse(source,PwmAllocator.board()));
+    }
+
+    /**
+     * Load, parse and validate a manifest file.
+     *
+     * @param source The manifest file, in properties format.
+     * @return The compiled manifest.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the manifest has any problems, listing all of them.
+     */
+    public static @NotNull HardwareManifest load(@NotNull final Path source) throws IOException, IllegalArgumentException {
+        return parse(Files.readString(source));
+    }
+
+    /**
+     * Load a manifest file, from the compiled cache if it is up-to-date.<br>
+     * The cache is up-to-date if it was compiled from a file with the same SHA-256 hash, for the same board.
+     * Otherwise, the manifest is parsed and validated, and the cache is rewritten.
+     * A missing or corrupt cache is simply rebuilt, and failing to write the cache is only warned about.
+     *
+     * @param source The manifest file, in properties format.
+     * @param cache  The cache file.
+     * @return The compiled manifest.
+     * @throws IOException If the manifest file cannot be read.
+     * @throws IllegalArgumentException If the manifest has any problems, listing all of them.
+     */
+    public static @NotNull HardwareManifest load(@NotNull final Path source, @NotNull final Path cache) throws IOException, IllegalArgumentException {
+        final byte[] bytes = Files.readAllBytes(source);
+        final byte[] hash = hash(bytes);
+        final PwmAllocator.Board board = PwmAllocator.board();
+        final HardwareManifest cached = read(cache,hash,board);
+        if (cached != null) return warn(cached);
+        final HardwareManifest manifest = ManifestParser.parse(new String(bytes,StandardCharsets.UTF_8),board);
+        try {
+            write(cache,hash,board,manifest);
+        } catch (final IOException exception) {
+            console.println("Warning: Failed to write the manifest cache %s: %s".formatted(cache,exception.getMessage()));
+        }
+        return warn(manifest);
+    }
+
+    private static @NotNull HardwareManifest warn(@NotNull final HardwareManifest manifest) {
+        for (final String warning : manifest.warnings) console.println("Warning: %s.".formatted(warning));
+        return manifest;
+    }
+
+    private static byte[] hash(final byte[] bytes) throws IllegalStateException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available!",exception);
+        }
+    }
+
+    private static @Nullable HardwareManifest read(@NotNull final Path cache, final byte[] hash, @NotNull final PwmAllocator.Board board) {
+        if (!Files.isRegularFile(cache)) return null;
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache)))) {
+            if (in.readInt() != magic || in.readInt() != formatVersion) return null;
+            final byte[] cachedHash = new byte[hash.length];
+            in.readFully(cachedHash);
+            if (!Arrays.equals(hash,cachedHash) || !in.readUTF().equals(board.name())) return null;
+
+            // Enums are stored by name, and pins by their physical number, so reordering an enum never remaps a cache.
+            final List<Declaration> declarations = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                final String name = in.readUTF();
+                final Kind kind = Kind.valueOf(in.readUTF());
+                final String driver = in.readUTF();
+                final PinIdentifier[] pins = new PinIdentifier[in.readUnsignedByte()];
+                for (int p = 0; p < pins.length; p++) {
+                    pins[p] = PinIdentifier.getPin(in.readUnsignedByte());
+                    if (pins[p] == PinIdentifier.BLANK) return null;
+                }
+                declarations.add(new Declaration(name,kind,driver.isEmpty() ? null : Servo.Driver.valueOf(driver),pins,
+                        in.readInt(),in.readInt(),in.readInt(),in.readDouble(),in.readBoolean()));
+            }
+            final List<String> warnings = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) warnings.add(in.readUTF());
+            return new HardwareManifest(declarations,warnings);
+        } catch (final IOException | RuntimeException exception) {
+            return null;
+        }
+    }
+
+    private static void write(@NotNull final Path cache, final byte[] hash, @NotNull final PwmAllocator.Board board, @NotNull final HardwareManifest manifest) throws IOException {
+        final Path directory = cache.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory,cache.getFileName().toString(),".tmp");
+        try {
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(magic);
+                out.writeInt(formatVersion);
+                out.write(hash);
+                out.writeUTF(board.name());
+                out.writeInt(manifest.declarations.size());
+                for (final Declaration declaration : manifest.declarations) {
+                    out.writeUTF(declaration.name());
+                    out.writeUTF(declaration.kind().name());
+                    out.writeUTF(declaration.driver() == null ? "" : declaration.driver().name());
+                    out.writeByte(declaration.pins.length);
+                    for (final PinIdentifier pin : declaration.pins) out.writeByte(pin.getPin());
+                    out.writeInt(declaration.minimum());
+                    out.writeInt(declaration.maximum());
+                    out.writeInt(declaration.frequency());
+                    out.writeDouble(declaration.gamma());
+                    out.writeBoolean(declaration.option());
+                }
+                out.writeInt(manifest.warnings.size());
+                for (final String warning : manifest.warnings) out.writeUTF(warning);
+            }
+            try {
+                Files.move(temporary,cache,StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException exception) {
+                Files.move(temporary,cache,StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @return Every declaration, ordered by type and name.
+     */
+    public @NotNull List<Declaration> getDeclarations() {
+        return declarations;
+    }
+
+    /**
+     * @return Everything that is valid, but probably not intended, such as pins falling back to software PWM.
+     */
+    public @NotNull List<String> getWarnings() {
+        return warnings;
+    }
+
+    /**
+     * Create every component of the manifest. Plain pins are created together, in parallel, through a {@link PinBatch}.
+     * Components are created in the order they were validated in, so every pin gets the hardware or software PWM
+     * it was validated for. Should anything fail, everything already created is closed again.
+     *
+     * @param pi4j The Pi4J Context.
+     * @return The created hardware.
+     * @throws IllegalStateException If any pin of the manifest is already in use, or fails to be created.
+     */
+    public @NotNull Hardware instantiate(@NotNull final Context pi4j) throws IllegalStateException {
+        final List<String> inUse = new ArrayList<>();
+        for (final Declaration declaration : declarations) {
+            for (final PinIdentifier pin : declaration.pins) if (!Pin.isPinAvailable(pin)) inUse.add("%s of %s".formatted(pin,declaration.name()));
+        }
+        if (!inUse.isEmpty()) throw new IllegalStateException("%d pins of the manifest are already in use: %s!".formatted(inUse.size(),String.join(", ",inUse)));
+
+        final ComponentRegistry registry = new ComponentRegistry();
+        try {
+            final PinBatch.Builder builder = PinBatch.builder(pi4j);
+            boolean plainPins = false;
+            for (final Declaration declaration : declarations) {
+                final PinIdentifier pin = declaration.pins[0];
+                switch (declaration.kind()) {
+                    case PWM -> builder.pwm(pin,declaration.frequency());
+                    case DIGITAL_INPUT -> builder.digitalInput(pin);
+                    case ANALOG_INPUT -> builder.analogInput(pin,declaration.boxedMinimum(),declaration.boxedMaximum(),declaration.option());
+                    case DIGITAL_OUTPUT -> builder.digitalOutput(pin,declaration.option());
+                    case ANALOG_OUTPUT -> builder.analogOutput(pin,declaration.boxedMinimum(),declaration.boxedMaximum(),declaration.option());
+                    default -> {
+                        continue;
+                    }
+                }
+                plainPins = true;
+            }
+
+            // Hardware PWM channels were validated in declaration order, so they must be taken in that order.
+            // The batch is built at its first PWM pin, after the components declared before it, and its pins filled in once built.
+            PinBatch batch = null;
+            final Map<String,Object> components = new LinkedHashMap<>();
+            for (final Declaration declaration : declarations) {
+                final PinIdentifier pin = declaration.pins[0];
+                if (declaration.kind() == Kind.PWM && batch == null) batch = registry.register(builder.build());
+                components.put(declaration.name(),switch (declaration.kind()) {
+                    case LED -> registry.register(new LED(pi4j,pin,declaration.option()));
+                    case DIMMABLE_LED -> registry.register(new DimmableLED(pi4j,pin,declaration.frequency(),declaration.gamma()));
+                    case SERVO -> registry.register(servo(pi4j,declaration));
+                    default -> null;
+                });
+            }
+            if (plainPins && batch == null) batch = registry.register(builder.build());
+            for (final Declaration declaration : declarations) {
+                final PinIdentifier pin = declaration.pins[0];
+                switch (declaration.kind()) {
+                    case PWM -> components.put(declaration.name(),batch.pwm(pin));
+                    case DIGITAL_INPUT -> components.put(declaration.name(),batch.digitalInput(pin));
+                    case ANALOG_INPUT -> components.put(declaration.name(),batch.analogInput(pin));
+                    case DIGITAL_OUTPUT -> components.put(declaration.name(),batch.digitalOutput(pin));
+                    case ANALOG_OUTPUT -> components.put(declaration.name(),batch.analogOutput(pin));
+                    default -> {}
+                }
+            }
+            return new Hardware(components,batch,registry);
+        } catch (final RuntimeException exception) {
+            try {
+                registry.close();
+            } catch (final IllegalStateException closing) {
+                exception.addSuppressed(closing);
+            }
+            throw exception;
+        }
+    }
+
+    private static @NotNull Servo servo(@NotNull final Context pi4j, @NotNull final Declaration declaration) {
+        final PinIdentifier[] pins = declaration.pins;
+        return switch (declaration.driver() == null ? Servo.Driver.NO_DRIVER : declaration.driver()) {
+            case NO_DRIVER -> new Servo.Builder.RawBuilder(pi4j)
+                    .pin(pins[0])
+                    .range(declaration.minimum(),declaration.maximum())
+                    .externalDacChip(declaration.option())
+                    .build();
+            case L298N -> {
+                final Servo.Builder.L298NBuilder builder = Servo.l298n(pi4j).channelA(pins[0],pins[1],pins[2]);
+                if (pins.length > 3) builder.channelB(pins[3],pins[4],pins[5]);
+                builder.frequency(declaration.frequency()).range(declaration.minimum(),declaration.maximum());
+                yield builder.build();
+            }
+            case L9110H -> {
+                final Servo.Builder.L9110HBuilder builder = Servo.l9110h(pi4j).channelA(pins[0],pins[1]);
+                if (pins.length > 2) builder.channelB(pins[2],pins[3]);
+                builder.frequency(declaration.frequency()).range(declaration.minimum(),declaration.maximum());
+                yield builder.build();
+            }
+        };
+    }
+}
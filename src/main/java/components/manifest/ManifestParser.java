@@ -0,0 +1,296 @@
+package components.manifest;
+
+import components.DimmableLED;
+import components.base.pins.PinValidator;
+import components.base.pins.analog.AnalogOutputPin;
+import components.base.pins.components.GpioType;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.pwm.PwmAllocator;
+import components.manifest.HardwareManifest.Declaration;
+import components.manifest.HardwareManifest.Kind;
+import components.servo.Servo;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Parses and validates the properties form of a {@link HardwareManifest}.
+ * Every problem is collected, so a manifest is rejected with all of its problems at once.
+ */
+final class ManifestParser {
+
+    private static final int defaultPwmFrequency = 50;
+    private static final int defaultHBridgeFrequency = 1000;
+    private static final int defaultServoMaximum = 1023;
+
+    private static final Map<String,Set<String>> properties = Map.of(
+            "led", Set.of("pin", "dimmable", "frequency", "gamma", "alwaysOn"),
+            "servo", Set.of("driver", "pin", "channelA", "channelB", "min", "max", "externalDac", "frequency"),
+            "pwm", Set.of("pin", "frequency"),
+            "input", Set.of("pin", "type", "min", "max", "externalDac"),
+            "output", Set.of("pin", "type", "alwaysOn", "min", "max", "externalDac"));
+
+    private final List<String> problems = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+    private final Map<PinIdentifier,String> owners = new EnumMap<>(PinIdentifier.class);
+    private final PinValidator validator;
+
+    private ManifestParser(@NotNull final PwmAllocator.Board board) {
+        this.validator = new PinValidator(board,problems,warnings);
+    }
+
+    /**
+     * @param source The manifest, in properties format.
+     * @param board  The board to validate PWM against.
+     * @return The compiled manifest.
+     * @throws IllegalArgumentException If the manifest has any problems, listing all of them.
+     */
+    static @NotNull HardwareManifest parse(@NotNull final String source, @NotNull final PwmAllocator.Board board) throws IllegalArgumentException {
+        final Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(source));
+        } catch (final IOException | IllegalArgumentException exception) {
+            throw new IllegalArgumentException("The manifest is not a valid properties file: %s!".formatted(exception.getMessage()),exception);
+        }
+        return new ManifestParser(board).compile(properties);
+    }
+
+    private @NotNull HardwareManifest compile(@NotNull final Properties source) throws IllegalArgumentException {
+        final Map<String,Map<String,String>> groups = new TreeMap<>();
+        for (final String key : source.stringPropertyNames()) {
+            final String[] parts = key.split("\\.");
+            if (parts.length != 3 || parts[0].isEmpty() || parts[1].isEmpty() || parts[2].isEmpty()) {
+                problems.add("'%s' is not of the form <type>.<name>.<property>".formatted(key));
+                continue;
+            }
+            final Set<String> allowed = properties.get(parts[0]);
+            if (allowed == null) problems.add("'%s' has an unknown type '%s', expected one of %s".formatted(key,parts[0],properties.keySet()));
+            else if (!allowed.contains(parts[2])) problems.add("'%s' has an unknown property '%s', expected one of %s".formatted(key,parts[2],allowed));
+            else groups.computeIfAbsent(parts[0] + "." + parts[1],group -> new TreeMap<>()).put(parts[2],source.getProperty(key).trim());
+        }
+
+        final List<Declaration> declarations = new ArrayList<>();
+        final Map<String,String> names = new HashMap<>();
+        for (final Map.Entry<String,Map<String,String>> group : groups.entrySet()) {
+            final int dot = group.getKey().indexOf('.');
+            final String type = group.getKey().substring(0,dot);
+            final String name = group.getKey().substring(dot + 1);
+            final String previous = names.putIfAbsent(name,group.getKey());
+            if (previous != null) {
+                problems.add("'%s' and '%s' share the name '%s'".formatted(previous,group.getKey(),name));
+                continue;
+            }
+            final Declaration declaration = switch (type) {
+                case "led" -> led(name,group.getValue());
+                case "servo" -> servo(name,group.getValue());
+                case "pwm" -> pwm(name,group.getValue());
+                case "input" -> input(name,group.getValue());
+                default -> output(name,group.getValue());
+            };
+            if (declaration != null) declarations.add(declaration);
+        }
+
+        if (!problems.isEmpty()) throw new IllegalArgumentException("The manifest has %d problems: %s!".formatted(problems.size(),String.join("; ",problems)));
+        return new HardwareManifest(declarations,warnings);
+    }
+
+    private @Nullable Declaration led(@NotNull final String name, @NotNull final Map<String,String> values) {
+        final PinIdentifier pin = pin(name,"pin",values.get("pin"));
+        final boolean dimmable = bool(name,"dimmable",values.get("dimmable"),false);
+        final boolean alwaysOn = bool(name,"alwaysOn",values.get("alwaysOn"),false);
+        final int frequency = integer(name,"frequency",values.get("frequency"),DimmableLED.defaultFrequency);
+        final double gamma = decimal(name,"gamma",values.get("gamma"),DimmableLED.defaultGamma);
+        if (pin == null) return null;
+        if (dimmable) {
+            if (alwaysOn) problems.add("%s cannot be both dimmable and always on".formatted(name));
+            if (!(gamma > 0)) problems.add("The gamma of %s must be more than 0".formatted(name));
+            validator.pwm(name,pin,frequency);
+            return new Declaration(name,Kind.DIMMABLE_LED,null,new PinIdentifier[]{pin},Declaration.unset,Declaration.unset,frequency,gamma,false);
+        }
+        forbid(name,values,"a plain LED","frequency","gamma");
+        return new Declaration(name,Kind.LED,null,new PinIdentifier[]{pin},Declaration.unset,Declaration.unset,0,0,alwaysOn);
+    }
+
+    private @Nullable Declaration servo(@NotNull final String name, @NotNull final Map<String,String> values) {
+        final Servo.Driver driver = driver(name,values.get("driver"));
+        if (driver == null) return null;
+        final int minimum = integer(name,"min",values.get("min"),AnalogOutputPin.defaultMinimumValue);
+        final int maximum = integer(name,"max",values.get("max"),defaultServoMaximum);
+        if (driver == Servo.Driver.NO_DRIVER) {
+            forbid(name,values,driver,"channelA","channelB","frequency");
+            final boolean externalDac = bool(name,"externalDac",values.get("externalDac"),false);
+            final PinIdentifier pin = pin(name,"pin",values.get("pin"));
+            validator.range(name,minimum,maximum,externalDac);
+            if (pin == null) return null;
+            return new Declaration(name,Kind.SERVO,driver,new PinIdentifier[]{pin},minimum,maximum,0,0,externalDac);
+        }
+
+        forbid(name,values,driver,"pin","externalDac");
+        if (maximum <= 0) problems.add("The maximum of %s must be more than 0".formatted(name));
+        final int frequency = integer(name,"frequency",values.get("frequency"),defaultHBridgeFrequency);
+        final int width = driver == Servo.Driver.L298N ? 3 : 2;
+        final PinIdentifier[] channelA = pins(name,"channelA",values.get("channelA"),width);
+        final PinIdentifier[] channelB = values.containsKey("channelB") ? pins(name,"channelB",values.get("channelB"),width) : new PinIdentifier[0];
+        if (channelA == null || channelB == null) return null;
+        final PinIdentifier[] pins = new PinIdentifier[channelA.length + channelB.length];
+        System.arraycopy(channelA,0,pins,0,channelA.length);
+        System.arraycopy(channelB,0,pins,channelA.length,channelB.length);
+        for (int i = 0; i < pins.length; i += width) validator.pwm(name,pins[i],frequency);
+        return new Declaration(name,Kind.SERVO,driver,pins,minimum,maximum,frequency,0,false);
+    }
+
+    private @Nullable Declaration pwm(@NotNull final String name, @NotNull final Map<String,String> values) {
+        final PinIdentifier pin = pin(name,"pin",values.get("pin"));
+        final int frequency = integer(name,"frequency",values.get("frequency"),defaultPwmFrequency);
+        if (pin == null) return null;
+        validator.pwm(name,pin,frequency);
+        return new Declaration(name,Kind.PWM,null,new PinIdentifier[]{pin},Declaration.unset,Declaration.unset,frequency,0,false);
+    }
+
+    private @Nullable Declaration input(@NotNull final String name, @NotNull final Map<String,String> values) {
+        final PinIdentifier pin = pin(name,"pin",values.get("pin"));
+        final boolean analog = analog(name,values.get("type"));
+        if (!analog) {
+            forbid(name,values,"digital","min","max","externalDac");
+            return pin == null ? null : new Declaration(name,Kind.DIGITAL_INPUT,null,new PinIdentifier[]{pin},Declaration.unset,Declaration.unset,0,0,false);
+        }
+        return analogPin(name,values,pin,Kind.ANALOG_INPUT);
+    }
+
+    private @Nullable Declaration output(@NotNull final String name, @NotNull final Map<String,String> values) {
+        final PinIdentifier pin = pin(name,"pin",values.get("pin"));
+        final boolean analog = analog(name,values.get("type"));
+        if (!analog) {
+            forbid(name,values,"digital","min","max","externalDac");
+            final boolean alwaysOn = bool(name,"alwaysOn",values.get("alwaysOn"),false);
+            return pin == null ? null : new Declaration(name,Kind.DIGITAL_OUTPUT,null,new PinIdentifier[]{pin},Declaration.unset,Declaration.unset,0,0,alwaysOn);
+        }
+        forbid(name,values,"analog","alwaysOn");
+        return analogPin(name,values,pin,Kind.ANALOG_OUTPUT);
+    }
+
+    private @Nullable Declaration analogPin(@NotNull final String name, @NotNull final Map<String,String> values, @Nullable final PinIdentifier pin, @NotNull final Kind kind) {
+        final boolean externalDac = bool(name,"externalDac",values.get("externalDac"),false);
+        final int minimum = integer(name,"min",values.get("min"),Declaration.unset);
+        final int maximum = integer(name,"max",values.get("max"),Declaration.unset);
+        validator.range(name,
+                minimum == Declaration.unset ? AnalogOutputPin.defaultMinimumValue : minimum,
+                maximum == Declaration.unset ? externalDac ? AnalogOutputPin.defaultTwelveBitMaximumValue : AnalogOutputPin.defaultMaximumValue : maximum,
+                externalDac);
+        if (pin == null) return null;
+        return new Declaration(name,kind,null,new PinIdentifier[]{pin},minimum,maximum,0,0,externalDac);
+    }
+
+    private void forbid(@NotNull final String name, @NotNull final Map<String,String> values, @NotNull final Object variant, @NotNull final String... properties) {
+        for (final String property : properties) if (values.containsKey(property)) problems.add("%s does not support '%s' as %s".formatted(name,property,variant));
+    }
+
+    private @Nullable PinIdentifier pin(@NotNull final String name, @NotNull final String property, @Nullable final String value) {
+        if (value == null || value.isEmpty()) {
+            problems.add("%s is missing '%s'".formatted(name,property));
+            return null;
+        }
+        final PinIdentifier pin = resolve(value);
+        if (pin == null || pin == PinIdentifier.BLANK) {
+            problems.add("'%s' of %s is not a pin. Use a physical pin number, such as 12, a name, such as PIN_12, or a BCM number, such as GPIO18".formatted(value,name));
+            return null;
+        }
+        if (!pin.isValid()) {
+            problems.add("%s of %s is a %s pin, not a GPIO pin".formatted(pin,name,pin.getType()));
+            return null;
+        }
+        final String owner = owners.putIfAbsent(pin,name);
+        if (owner != null) problems.add("%s is used by both %s and %s".formatted(pin,owner,name));
+        final GpioType type = pin.getGpioType();
+        if (type == GpioType.ID_SD || type == GpioType.ID_SC) warnings.add("%s of %s is reserved for the HAT ID EEPROM".formatted(pin,name));
+        else if (type != GpioType.STANDARD && type != GpioType.HW_PWM) warnings.add("%s of %s is the %s pin, and its bus cannot be used alongside it".formatted(pin,name,type));
+        return pin;
+    }
+
+    private static @Nullable PinIdentifier resolve(@NotNull final String value) {
+        final String upper = value.toUpperCase(Locale.ROOT);
+        try {
+            if (upper.startsWith("GPIO")) return PinIdentifier.getPinByBcm(Integer.parseInt(upper.substring(4)));
+            else if (upper.startsWith("BCM")) return PinIdentifier.getPinByBcm(Integer.parseInt(upper.substring(3)));
+            else if (upper.startsWith("PIN_")) return PinIdentifier.valueOf(upper);
+            else return PinIdentifier.getPin(Integer.parseInt(upper));
+        } catch (final IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    private PinIdentifier[] pins(@NotNull final String name, @NotNull final String property, @Nullable final String value, final int count) {
+        if (value == null || value.isEmpty()) {
+            problems.add("%s is missing '%s'".formatted(name,property));
+            return null;
+        }
+        final String[] parts = value.split(",");
+        if (parts.length != count) {
+            problems.add("'%s' of %s must list %d pins, but lists %d".formatted(property,name,count,parts.length));
+            return null;
+        }
+        final PinIdentifier[] pins = new PinIdentifier[count];
+        boolean valid = true;
+        for (int i = 0; i < count; i++) {
+            pins[i] = pin(name,property,parts[i].trim());
+            valid &= pins[i] != null;
+        }
+        return valid ? pins : null;
+    }
+
+    private @Nullable Servo.Driver driver(@NotNull final String name, @Nullable final String value) {
+        if (value == null) return Servo.Driver.NO_DRIVER;
+        try {
+            return Servo.Driver.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException exception) {
+            problems.add("'%s' of %s is not a driver, expected one of %s".formatted(value,name,List.of(Servo.Driver.values())));
+            return null;
+        }
+    }
+
+    private boolean analog(@NotNull final String name, @Nullable final String value) {
+        if (value == null || value.equalsIgnoreCase("digital")) return false;
+        else if (value.equalsIgnoreCase("analog")) return true;
+        problems.add("'%s' of %s is not a type, expected digital or analog".formatted(value,name));
+        return false;
+    }
+
+    private boolean bool(@NotNull final String name, @NotNull final String property, @Nullable final String value, final boolean fallback) {
+        if (value == null) return fallback;
+        else if (value.equalsIgnoreCase("true")) return true;
+        else if (value.equalsIgnoreCase("false")) return false;
+        problems.add("'%s' of %s must be true or false, but is '%s'".formatted(property,name,value));
+        return fallback;
+    }
+
+    private int integer(@NotNull final String name, @NotNull final String property, @Nullable final String value, final int fallback) {
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException exception) {
+            problems.add("'%s' of %s must be a whole number, but is '%s'".formatted(property,name,value));
+            return fallback;
+        }
+    }
+
+    private double decimal(@NotNull final String name, @NotNull final String property, @Nullable final String value, final double fallback) {
+        if (value == null) return fallback;
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException exception) {
+            problems.add("'%s' of %s must be a number, but is '%s'".formatted(property,name,value));
+            return fallback;
+        }
+    }
+}
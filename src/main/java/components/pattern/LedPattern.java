@@ -0,0 +1,212 @@
+package components.pattern;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * An on/off pattern for LEDs, described as alternating on and off durations in milliseconds.<br>
+ * Patterns are immutable, and are compiled by the {@link LedPatternEngine} into a bitmap holding one bit per
+ * engine tick, so looking up the state of an LED at any point in its pattern is a single array access.
+ * <li><b>Blink:</b> A fixed on and off time.</li>
+ * <li><b>Heartbeat:</b> Two short flashes, followed by a pause.</li>
+ * <li><b>Morse:</b> Text encoded as Morse code.</li>
+ * <li><b>Error codes:</b> A number of flashes, followed by a long pause.</li>
+ * <li><b>Chase:</b> One step on, followed by one step off per other LED, played with a phase per LED.</li>
+ */
+@SuppressWarnings("unused")
+public final class LedPattern {
+
+    private static final String[] morse = {
+            ".-", "-...", "-.-.", "-..", ".", "..-.", "--.", "....", "..", ".---", "-.-", ".-..", "--",
+            "-.", "---", ".--.", "--.-", ".-.", "...", "-", "..-", "...-", ".--", "-..-", "-.--", "--.."
+    };
+    private static final String[] morseDigits = {
+            "-----", ".----", "..---", "...--", "....-", ".....", "-....", "--...", "---..", "----."
+    };
+
+    private final boolean startsOn;
+    private final int[] durations;
+    private final int duration;
+
+    private long[] bitmap;
+    private int bitmapTickMillis;
+
+    private LedPattern(final boolean startsOn, @NotNull final int[] durations) throws IllegalArgumentException {
+        if (durations.length == 0) throw new IllegalArgumentException("A pattern must have at least one duration!");
+        long total = 0;
+        for (final int duration : durations) {
+            if (duration < 0) throw new IllegalArgumentException("A pattern duration cannot be less than 0!");
+            total += duration;
+        }
+        if (total == 0) throw new IllegalArgumentException("A pattern must last longer than 0 milliseconds!");
+        else if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("A pattern cannot last longer than %d milliseconds!".formatted(Integer.MAX_VALUE));
+        this.startsOn = startsOn;
+        this.durations = durations;
+        this.duration = (int) total;
+    }
+
+    /**
+     * Create a pattern from alternating on and off durations.
+     *
+     * @param startsOn  True if the first duration is on, otherwise false.
+     * @param durations The durations in milliseconds. The array is copied.
+     * @return The new Pattern.
+     * @throws IllegalArgumentException If no durations are given, or a duration is negative.
+     */
+    public static @NotNull LedPattern of(final boolean startsOn, @NotNull final int... durations) throws IllegalArgumentException {
+        return new LedPattern(startsOn,durations.clone());
+    }
+
+    public static @NotNull LedPattern solid() {
+        return new LedPattern(true,new int[]{1000});
+    }
+
+    public static @NotNull LedPattern dark() {
+        return new LedPattern(false,new int[]{1000});
+    }
+
+    public static @NotNull LedPattern blink(final int onMillis, final int offMillis) throws IllegalArgumentException {
+        return new LedPattern(true,new int[]{onMillis,offMillis});
+    }
+
+    /**
+     * @return Two 100 millisecond flashes, 100 milliseconds apart, every 1.2 seconds.
+     */
+    public static @NotNull LedPattern heartbeat() {
+        return new LedPattern(true,new int[]{100,100,100,900});
+    }
+
+    /**
+     * Create a pattern flashing a number, followed by a pause.
+     *
+     * @param code        The number of flashes.
+     * @param onMillis    The duration of a flash.
+     * @param offMillis   The time between flashes.
+     * @param pauseMillis The pause after the last flash.
+     * @return The new Pattern.
+     * @throws IllegalArgumentException If the code is less than 1.
+     */
+    public static @NotNull LedPattern errorCode(final int code, final int onMillis, final int offMillis, final int pauseMillis) throws IllegalArgumentException {
+        if (code < 1) throw new IllegalArgumentException("An error code cannot be less than 1!");
+        final int[] durations = new int[code * 2];
+        for (int i = 0; i < code; i++) {
+            durations[i * 2] = onMillis;
+            durations[i * 2 + 1] = i == code - 1 ? pauseMillis : offMillis;
+        }
+        return new LedPattern(true,durations);
+    }
+
+    public static @NotNull LedPattern errorCode(final int code) throws IllegalArgumentException {
+        return errorCode(code,250,250,1500);
+    }
+
+    /**
+     * Create a pattern spelling the text in Morse code, followed by a word gap.
+     * A dot lasts one unit, a dash three, the gap within a letter one, between letters three and between words seven.
+     *
+     * @param text       The text, containing only letters, digits and spaces.
+     * @param unitMillis The duration of a unit.
+     * @return The new Pattern.
+     * @throws IllegalArgumentException If the text contains anything but letters, digits and spaces, or no letters at all.
+     */
+    public static @NotNull LedPattern morse(@NotNull final String text, final int unitMillis) throws IllegalArgumentException {
+        if (unitMillis < 1) throw new IllegalArgumentException("A Morse unit cannot be less than 1 millisecond!");
+        final String normalized = text.trim().toUpperCase(Locale.ROOT);
+        int[] durations = new int[16];
+        int length = 0;
+        for (int i = 0; i < normalized.length(); i++) {
+            final char character = normalized.charAt(i);
+            if (character == ' ') {
+                // Widen the letter gap already appended into a word gap.
+                if (length > 0) durations[length - 1] = 7 * unitMillis;
+                continue;
+            }
+            final String code;
+            if (character >= 'A' && character <= 'Z') code = morse[character - 'A'];
+            else if (character >= '0' && character <= '9') code = morseDigits[character - '0'];
+            else throw new IllegalArgumentException("Cannot encode '%c' in Morse code!".formatted(character));
+            for (int j = 0; j < code.length(); j++) {
+                if (length + 2 > durations.length) durations = Arrays.copyOf(durations, durations.length << 1);
+                durations[length++] = (code.charAt(j) == '-' ? 3 : 1) * unitMillis;
+                durations[length++] = (j == code.length() - 1 ? 3 : 1) * unitMillis;
+            }
+        }
+        if (length == 0) throw new IllegalArgumentException("Cannot encode an empty text in Morse code!");
+        durations[length - 1] = 7 * unitMillis;
+        return new LedPattern(true,Arrays.copyOf(durations, length));
+    }
+
+    /**
+     * Create the pattern of one LED in a chase. Play it on every LED, with the phase of LED <i>n</i> being n / leds.
+     *
+     * @param leds       The number of LEDs in the chase.
+     * @param stepMillis The time each LED stays on.
+     * @return The new Pattern.
+     * @throws IllegalArgumentException If there are less than 1 LEDs.
+     */
+    public static @NotNull LedPattern chase(final int leds, final int stepMillis) throws IllegalArgumentException {
+        if (leds < 1) throw new IllegalArgumentException("A chase must have at least 1 LED!");
+        return new LedPattern(true,new int[]{stepMillis,stepMillis * (leds - 1)});
+    }
+
+    /**
+     * Get the bitmap of the pattern for the given tick period. Patterns are usually shared by many LEDs,
+     * so the last compiled bitmap is kept, and only recompiled should the tick period change.
+     */
+    synchronized long[] bitmap(final int tickMillis) {
+        if (bitmap == null || bitmapTickMillis != tickMillis) {
+            bitmap = compile(tickMillis);
+            bitmapTickMillis = tickMillis;
+        }
+        return bitmap;
+    }
+
+    /**
+     * Compile the pattern into a bitmap, holding one bit per tick.
+     *
+     * @param tickMillis The tick period of the engine.
+     * @return The bitmap, with bit <i>t</i> of the pattern stored at bit {@code t & 63} of word {@code t >>> 6}.
+     */
+    long[] compile(final int tickMillis) {
+        final int ticks = ticks(tickMillis);
+        final long[] bitmap = new long[(ticks + 63) >>> 6];
+        boolean on = startsOn;
+        long elapsed = 0;
+        for (final int duration : durations) {
+            final int from = (int) (elapsed / tickMillis);
+            elapsed += duration;
+            final int to = (int) Math.min(ticks, elapsed / tickMillis);
+            if (on) for (int tick = from; tick < to; tick++) bitmap[tick >>> 6] |= 1L << tick;
+            on = !on;
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param tickMillis The tick period of the engine.
+     * @return The length of the pattern in ticks, at least 1.
+     */
+    int ticks(final int tickMillis) {
+        return Math.max(1, duration / tickMillis);
+    }
+
+    public boolean startsOn() {
+        return startsOn;
+    }
+
+    /**
+     * @return The duration of one repetition of the pattern, in milliseconds.
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return A copy of the alternating on and off durations, in milliseconds.
+     */
+    public int[] getDurations() {
+        return durations.clone();
+    }
+}
@@ -0,0 +1,242 @@
+package components.pattern;
+
+import components.base.pins.digital.DigitalOutputPin;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the {@link LedPattern}s of any number of LEDs from a single periodic task on the {@link ActuationScheduler}.<br>
+ * All patterns are played against the engine's own tick counter, rather than the time they were started at,
+ * so LEDs playing the same pattern stay in phase no matter when they were started, and a phase can be given to
+ * offset an LED on purpose, such as for a chase. Every tick is handled in two passes: the new state of every LED
+ * is looked up first, after which only the LEDs whose state changed are written, back-to-back.
+ * The periodic task only runs while at least one pattern is playing.<br>
+ * An LED plays at most one pattern at a time: playing a new pattern on an LED replaces the old one.
+ * Should writing an LED fail, its pattern is stopped and the failure reported, while every other LED keeps playing.
+ */
+@SuppressWarnings("unused")
+public final class LedPatternEngine implements AutoCloseable {
+
+    public static final int defaultTickMillis = 10;
+
+    private static LedPatternEngine shared;
+
+    public final class Channel {
+
+        private final DigitalOutputPin pin;
+        private final LedPattern pattern;
+        private final long[] bitmap;
+        private final int length;
+        private final long offset;
+        private final boolean loop;
+        private final long start;
+
+        private boolean high;
+        private boolean next;
+        private volatile boolean playing = true;
+
+        private Channel(@NotNull final DigitalOutputPin pin, @NotNull final LedPattern pattern, final double phase, final boolean loop) {
+            this.pin = pin;
+            this.pattern = pattern;
+            this.bitmap = pattern.bitmap(tickMillis);
+            this.length = pattern.ticks(tickMillis);
+            this.offset = Math.round(phase * length);
+            this.loop = loop;
+            this.start = tick;
+            this.high = pin.isHigh();
+        }
+
+        public void stop() {
+            playing = false;
+            channels.remove(this);
+        }
+
+        public boolean isPlaying() {
+            return playing;
+        }
+
+        public @NotNull DigitalOutputPin getPin() {
+            return pin;
+        }
+
+        public @NotNull LedPattern getPattern() {
+            return pattern;
+        }
+    }
+
+    private final int tickMillis;
+    private final CopyOnWriteArrayList<Channel> channels = new CopyOnWriteArrayList<>();
+    private Channel[] changed = new Channel[16];
+    private Timeout timeout;
+    private long tick = 0;
+
+    private volatile long ticks = 0;
+    private volatile long writes = 0;
+
+    /**
+     * Create a new LED Pattern Engine.
+     *
+     * @param tickMillis The tick period, which is the resolution of all patterns.
+     * @throws IllegalArgumentException If the tick period is less than 1 millisecond.
+     */
+    public LedPatternEngine(final int tickMillis) throws IllegalArgumentException {
+        if (tickMillis < 1) throw new IllegalArgumentException("The tick period cannot be less than 1 millisecond!");
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * @return The engine used by {@link components.LED#play(LedPattern)}, ticking every {@link #defaultTickMillis} milliseconds.
+     */
+    public static synchronized @NotNull LedPatternEngine shared() {
+        if (shared == null) shared = new LedPatternEngine(defaultTickMillis);
+        return shared;
+    }
+
+    public @NotNull Channel play(@NotNull final DigitalOutputPin pin, @NotNull final LedPattern pattern) {
+        return play(pin,pattern,0,true);
+    }
+
+    /**
+     * Play a pattern on an LED, replacing any pattern it is already playing.
+     *
+     * @param pin     The pin of the LED.
+     * @param pattern The pattern.
+     * @param phase   The fraction of the pattern the LED is ahead of the engine, between 0 and 1.
+     * @param loop    True if the pattern should repeat until stopped, otherwise false.
+     *                A pattern which does not loop is played once from its start, leaving the LED off afterward.
+     * @return The playing channel, which can be used to stop the pattern.
+     * @throws IllegalArgumentException If the phase is not between 0 and 1.
+     */
+    public synchronized @NotNull Channel play(@NotNull final DigitalOutputPin pin, @NotNull final LedPattern pattern,
+                                              final double phase, final boolean loop) throws IllegalArgumentException {
+        if (!(phase >= 0 && phase <= 1)) throw new IllegalArgumentException("The phase must be between 0 and 1!");
+        stop(pin);
+        final Channel channel = new Channel(pin,pattern,phase,loop);
+        channels.add(channel);
+        if (timeout == null || !timeout.isPending()) timeout = ActuationScheduler.scheduleAtFixedRate(this::tick,0,tickMillis,TimeUnit.MILLISECONDS);
+        return channel;
+    }
+
+    /**
+     * Play the same pattern on several LEDs, spreading their phases evenly, as for a chase.
+     *
+     * @param pattern The pattern.
+     * @param pins    The pins of the LEDs, in order.
+     */
+    public synchronized void playSpread(@NotNull final LedPattern pattern, @NotNull final DigitalOutputPin... pins) {
+        for (int i = 0; i < pins.length; i++) play(pins[i],pattern,1 - (double) i / pins.length,true);
+    }
+
+    /**
+     * Stop the pattern playing on an LED, if any, leaving it in its current state.
+     *
+     * @param pin The pin of the LED.
+     * @return True if a pattern was stopped, otherwise false.
+     */
+    public boolean stop(@NotNull final DigitalOutputPin pin) {
+        for (final Channel channel : channels) {
+            if (channel.pin == pin) {
+                channel.stop();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param pin The pin of the LED.
+     * @return The channel playing on the LED, or null if it is not playing a pattern.
+     */
+    public @Nullable Channel getChannel(@NotNull final DigitalOutputPin pin) {
+        for (final Channel channel : channels) if (channel.pin == pin) return channel;
+        return null;
+    }
+
+    private synchronized void tick() {
+        final long now = tick++;
+        int count = 0;
+        for (final Channel channel : channels) {
+            if (!channel.playing) continue;
+            final long position;
+            if (channel.loop) position = (now + channel.offset) % channel.length;
+            else if (now - channel.start < channel.length) position = now - channel.start;
+            else {
+                channel.playing = false;
+                channels.remove(channel);
+                position = -1;
+            }
+            final boolean high = position >= 0 && (channel.bitmap[(int) (position >>> 6)] >>> position & 1) != 0;
+            if (high == channel.high) continue;
+            channel.next = high;
+            if (count == changed.length) changed = Arrays.copyOf(changed, count << 1);
+            changed[count++] = channel;
+        }
+        int written = 0;
+        for (int i = 0; i < count; i++) {
+            final Channel channel = changed[i];
+            changed[i] = null;
+            try {
+                channel.pin.set(channel.next);
+                channel.high = channel.next;
+                written++;
+            } catch (final RuntimeException exception) {
+                // Throwing would cancel the task driving every LED, so only the failing LED's pattern is dropped.
+                channel.stop();
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread,exception);
+            }
+        }
+        writes += written;
+        ticks++;
+        if (channels.isEmpty() && timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+
+    /**
+     * Stop all patterns, leaving the LEDs in their current state.
+     */
+    public synchronized void stopAll() {
+        for (final Channel channel : channels) channel.playing = false;
+        channels.clear();
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+    }
+
+    /**
+     * @return The number of LEDs currently playing a pattern.
+     */
+    public int size() {
+        return channels.size();
+    }
+
+    public int getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * @return The number of ticks the engine has run.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return The number of LED writes made by the engine.
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    @Override
+    public void close() {
+        stopAll();
+    }
+}
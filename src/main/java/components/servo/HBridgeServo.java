@@ -0,0 +1,346 @@
+package components.servo;
+
+import com.pi4j.context.Context;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of motors driven through an H-bridge, with one or two channels.<br>
+ * Every channel is driven by a direction and a PWM speed, and can additionally brake (shorting the motor)
+ * or coast (leaving it free-running). Reversing a channel, or driving it out of a brake, never happens directly:
+ * the channel is first left to coast for the configured dead-time, and only then driven in the new direction.<br>
+ * Updates are coordinated: {@link #drive(double, double)} writes the direction of both channels,
+ * followed by the speed of both channels, back-to-back in a single call. Should one channel have to wait out
+ * its dead-time, both channels are updated together once it has passed.<br>
+ * When used through the {@link Servo} API, values are mapped onto the speed, with the maximum of the range
+ * being full speed, negative values reversing, and values within the minimum of the range coasting.
+ * Ignoring the limit drives values within the minimum of the range as well, rather than coasting.
+ * Full speed and coasting lie outside the range, so {@link #high(boolean)} and {@link #low(boolean)} are not affected by it.
+ */
+@SuppressWarnings("unused")
+public abstract class HBridgeServo extends Servo {
+
+    public static final long defaultDeadTimeMillis = 5;
+
+    protected static final int coast = 0;
+    protected static final int forward = 1;
+    protected static final int reverse = -1;
+    protected static final int brake = 2;
+
+    private final int channels;
+    private final double deadband;
+    private final double fullScale;
+
+    private final int[] modes;
+    private final int[] targetModes;
+    private final float[] targetDuty;
+    private final long[] coastSince;
+    private volatile long deadTime = TimeUnit.MILLISECONDS.toNanos(defaultDeadTimeMillis);
+    private Timeout pending;
+
+    protected HBridgeServo(@NotNull final Context pi4j, final int channels, @NotNull final Range range) throws IllegalArgumentException {
+        super(pi4j);
+        if (channels < 1 || channels > 2) throw new IllegalArgumentException("An H-bridge must have one or two channels!");
+        else if (range.max().doubleValue() <= 0) throw new IllegalArgumentException("The maximum of an H-bridge range must be more than 0!");
+        this.channels = channels;
+        this.deadband = Math.max(0, range.min().doubleValue());
+        this.fullScale = range.max().doubleValue();
+        this.modes = new int[channels];
+        this.targetModes = new int[channels];
+        this.targetDuty = new float[channels];
+        this.coastSince = new long[channels];
+        Arrays.fill(coastSince, System.nanoTime() - TimeUnit.DAYS.toNanos(1));
+    }
+
+    /**
+     * Write the direction inputs of a channel.
+     *
+     * @param channel The channel, starting at 0.
+     * @param mode    One of forward, reverse, coast or brake.
+     */
+    protected abstract void writeDirection(int channel, int mode);
+
+    /**
+     * Write the speed of a channel. Always called after {@link #writeDirection(int, int)} for the same mode.
+     *
+     * @param channel The channel, starting at 0.
+     * @param mode    One of forward, reverse, coast or brake.
+     * @param duty    The duty cycle, between 0 and 100.
+     */
+    protected abstract void writeSpeed(int channel, int mode, float duty);
+
+    /**
+     * Drive all channels at the same speed.
+     *
+     * @param speed The speed, between -1 (full reverse) and 1 (full forward). 0 coasts.
+     */
+    public synchronized void drive(final double speed) {
+        for (int channel = 0; channel < channels; channel++) request(channel,speed);
+        apply();
+    }
+
+    /**
+     * Drive a single channel.
+     *
+     * @param channel The channel, starting at 0.
+     * @param speed   The speed, between -1 (full reverse) and 1 (full forward). 0 coasts.
+     */
+    public synchronized void drive(final int channel, final double speed) {
+        checkChannel(channel);
+        request(channel,speed);
+        apply();
+    }
+
+    /**
+     * Drive both channels, writing them together to minimise the skew between them.
+     *
+     * @param first  The speed of the first channel, between -1 and 1.
+     * @param second The speed of the second channel, between -1 and 1.
+     * @throws IllegalStateException If the H-bridge only has one channel.
+     */
+    public synchronized void drive(final double first, final double second) throws IllegalStateException {
+        if (channels < 2) throw new IllegalStateException("Cannot drive two channels on a single channel H-bridge!");
+        request(0,first);
+        request(1,second);
+        apply();
+    }
+
+    public synchronized void brake() {
+        for (int channel = 0; channel < channels; channel++) request(channel,brake,100);
+        apply();
+    }
+
+    public synchronized void brake(final int channel) {
+        checkChannel(channel);
+        request(channel,brake,100);
+        apply();
+    }
+
+    public synchronized void coast() {
+        for (int channel = 0; channel < channels; channel++) request(channel,coast,0);
+        apply();
+    }
+
+    public synchronized void coast(final int channel) {
+        checkChannel(channel);
+        request(channel,coast,0);
+        apply();
+    }
+
+    /**
+     * Set the time a channel coasts for before it is driven in the opposite direction.
+     *
+     * @param time The dead-time.
+     * @param unit The unit of the dead-time.
+     * @return The H-Bridge Instance.
+     * @throws IllegalArgumentException If the dead-time is negative.
+     */
+    public HBridgeServo deadTime(final long time, @NotNull final TimeUnit unit) throws IllegalArgumentException {
+        if (time < 0) throw new IllegalArgumentException("The dead-time cannot be negative!");
+        deadTime = unit.toNanos(time);
+        return this;
+    }
+
+    /**
+     * @return The dead-time in nanoseconds.
+     */
+    public long getDeadTime() {
+        return deadTime;
+    }
+
+    public int channels() {
+        return channels;
+    }
+
+    /**
+     * @param channel The channel, starting at 0.
+     * @return The last requested speed of the channel, between -1 and 1.
+     */
+    public synchronized double speed(final int channel) {
+        checkChannel(channel);
+        return switch (targetModes[channel]) {
+            case forward -> targetDuty[channel] / 100d;
+            case reverse -> -targetDuty[channel] / 100d;
+            default -> 0;
+        };
+    }
+
+    private void checkChannel(final int channel) throws IndexOutOfBoundsException {
+        if (channel < 0 || channel >= channels) throw new IndexOutOfBoundsException("Channel %d does not exist on an H-bridge with %d channels!".formatted(channel,channels));
+    }
+
+    private void request(final int channel, final double speed) {
+        final double clamped = Math.clamp(speed,-1d,1d);
+        if (clamped == 0 || Double.isNaN(clamped)) request(channel,coast,0);
+        else request(channel,clamped > 0 ? forward : reverse,(float) (Math.abs(clamped) * 100));
+    }
+
+    private void request(final int channel, final int mode, final float duty) {
+        targetModes[channel] = mode;
+        targetDuty[channel] = duty;
+    }
+
+    private boolean isDriving(final int mode) {
+        return mode == forward || mode == reverse;
+    }
+
+    /**
+     * @return True if the channel must coast for the dead-time before being driven in any direction.
+     */
+    private boolean needsDeadTime(final int mode) {
+        return isDriving(mode) || mode == brake;
+    }
+
+    private void apply() {
+        final long now = System.nanoTime();
+        long wait = 0;
+        for (int channel = 0; channel < channels; channel++) {
+            final int target = targetModes[channel];
+            final int current = modes[channel];
+            if (!isDriving(target) || target == current) continue;
+            if (needsDeadTime(current)) {
+                writeDirection(channel,coast);
+                writeSpeed(channel,coast,0);
+                modes[channel] = coast;
+                coastSince[channel] = now;
+            }
+            if (modes[channel] == coast) wait = Math.max(wait, coastSince[channel] + deadTime - now);
+        }
+        if (wait > 0) {
+            if (pending == null || !pending.isPending()) pending = ActuationScheduler.schedule(this::deferred,wait,TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        for (int channel = 0; channel < channels; channel++) writeDirection(channel,targetModes[channel]);
+        for (int channel = 0; channel < channels; channel++) writeSpeed(channel,targetModes[channel],targetDuty[channel]);
+        for (int channel = 0; channel < channels; channel++) {
+            if (targetModes[channel] == coast && modes[channel] != coast) coastSince[channel] = now;
+            modes[channel] = targetModes[channel];
+        }
+    }
+
+    /**
+     * Cancel any deferred update, and let every channel coast.
+     */
+    @Override
+    protected synchronized void shutdown() {
+        if (pending != null) pending.cancel();
+        pending = null;
+        coast();
+    }
+
+    private synchronized void deferred() {
+        pending = null;
+        if (!isClosed()) apply();
+    }
+
+    private double toSpeed(final double value, final boolean ignoreLimit) {
+        if (!ignoreLimit && Math.abs(value) <= deadband) return 0;
+        return value / fullScale;
+    }
+
+    @Override
+    public void high() {
+        drive(1d);
+    }
+
+    @Override
+    public void high(final boolean ignoreLimit) {
+        drive(1d);
+    }
+
+    @Override
+    public Timeout high(final int delay) {
+        return schedule(this::high,delay,TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Timeout high(final boolean ignoreLimit, final int delay) {
+        return schedule(this::high,delay,TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Timeout high(final int delay, @NotNull final TimeUnit unit) {
+        return schedule(this::high,delay,unit);
+    }
+
+    @Override
+    public Timeout high(final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit) {
+        return schedule(this::high,delay,unit);
+    }
+
+    @Override
+    public void low() {
+        coast();
+    }
+
+    @Override
+    public void low(final boolean ignoreLimit) {
+        coast();
+    }
+
+    @Override
+    public Timeout low(final int delay) {
+        return schedule(this::coast,delay,TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Timeout low(final boolean ignoreLimit, final int delay) {
+        return schedule(this::coast,delay,TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Timeout low(final int delay, @NotNull final TimeUnit unit) {
+        return schedule(this::coast,delay,unit);
+    }
+
+    @Override
+    public Timeout low(final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit) {
+        return schedule(this::coast,delay,unit);
+    }
+
+    @Override
+    public void set(@NotNull final Number value) {
+        drive(toSpeed(value.doubleValue(),false));
+    }
+
+    @Override
+    public void set(@NotNull final Number value, final boolean ignoreLimit) {
+        drive(toSpeed(value.doubleValue(),ignoreLimit));
+    }
+
+    @Override
+    public Timeout set(@NotNull final Number value, final int delay) {
+        return set(value,false,delay,TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Timeout set(@NotNull final Number value, final boolean ignoreLimit, final int delay) {
+        return set(value,ignoreLimit,delay,TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Timeout set(@NotNull final Number value, final int delay, @NotNull final TimeUnit unit) {
+        return set(value,false,delay,unit);
+    }
+
+    @Override
+    public Timeout set(@NotNull final Number value, final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit) {
+        final double speed = toSpeed(value.doubleValue(),ignoreLimit);
+        return schedule(() -> drive(speed),delay,unit);
+    }
+
+    @Override
+    public void setInt(final int value) {
+        drive(toSpeed(value,false));
+    }
+
+    @Override
+    public void setInt(final int value, final boolean ignoreLimit) {
+        drive(toSpeed(value,ignoreLimit));
+    }
+}
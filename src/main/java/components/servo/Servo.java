@@ -2,28 +2,81 @@ package components.servo;
 
 import com.pi4j.context.Context;
 import com.pi4j.util.Console;
+import components.base.metrics.Metrics;
+import components.base.pins.Pin;
 import components.base.pins.analog.AnalogOutputPin;
 import components.base.pins.components.PinIdentifier;
+import components.base.pins.digital.DigitalOutputPin;
+import components.base.pins.pwm.PwmPin;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public abstract class Servo {
+/**
+ * Base class of all servos.<br>
+ * Delayed commands are run by the library-wide {@link ActuationScheduler}, shared by all servos,
+ * and return a {@link Timeout} handle which can be used to cancel the command before it runs.<br>
+ * A servo owns its pins. Closing it cancels its delayed commands, drives it to a safe state and closes the pins.
+ */
+public abstract class Servo implements AutoCloseable {
 
     public record Range(Number min, Number max) {}
 
-    protected final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    protected final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
-
     private final Context pi4j;
     protected final Console console;
 
+    private volatile int generation = 0;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
     protected Servo(@NotNull final Context pi4j) throws IllegalStateException {
         this.pi4j = pi4j;
         this.console = new Console();
     }
 
+    /**
+     * Schedule a command on the {@link ActuationScheduler}. The command is skipped
+     * should {@link #cancelPending()} be called before it runs.
+     */
+    protected @NotNull Timeout schedule(@NotNull final Runnable command, final int delay, @NotNull final TimeUnit unit) {
+        final int generation = this.generation;
+        final long due = Metrics.enabled ? System.nanoTime() + unit.toNanos(delay) : 0;
+        return ActuationScheduler.schedule(() -> {
+            if (Metrics.enabled) Metrics.getSchedulingLateness().record(System.nanoTime() - due);
+            if (this.generation == generation) command.run();
+        },delay,unit);
+    }
+
+    /**
+     * Cancel all delayed commands of this servo that have not yet run.
+     */
+    public void cancelPending() {
+        generation++;
+    }
+
+    /**
+     * Drive the servo to a safe state, and close its pins. Called once, when the servo is closed.
+     */
+    protected abstract void shutdown();
+
+    /**
+     * Close the servo. Delayed commands that have not yet run are cancelled, the servo is driven to a safe state,
+     * and its pins are closed. Closing a closed servo does nothing.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false,true)) return;
+        cancelPending();
+        shutdown();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
     protected void high(@NotNull final AnalogOutputPin... pins) {
         high(false, pins);
     }
@@ -32,20 +85,20 @@ public abstract class Servo {
         for (final AnalogOutputPin pin : pins) pin.on(ignoreLimit);
     }
 
-    protected void high(final int delay, @NotNull final AnalogOutputPin... pins) {
-        high(false,delay,pins);
+    protected @NotNull Timeout high(final int delay, @NotNull final AnalogOutputPin... pins) {
+        return high(false,delay,pins);
     }
 
-    protected void high(final boolean ignoreLimit, final int delay, @NotNull final AnalogOutputPin... pins) {
-        high(ignoreLimit,delay,TimeUnit.MILLISECONDS,pins);
+    protected @NotNull Timeout high(final boolean ignoreLimit, final int delay, @NotNull final AnalogOutputPin... pins) {
+        return high(ignoreLimit,delay,TimeUnit.MILLISECONDS,pins);
     }
 
-    protected void high(final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
-        high(false,delay,unit,pins);
+    protected @NotNull Timeout high(final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
+        return high(false,delay,unit,pins);
     }
 
-    protected void high(final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
-        scheduler.schedule(() -> executor.submit(() -> high(ignoreLimit, pins)),delay,unit);
+    protected @NotNull Timeout high(final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
+        return schedule(() -> high(ignoreLimit, pins),delay,unit);
     }
 
     protected void low(@NotNull final AnalogOutputPin... pins) {
@@ -56,20 +109,20 @@ public abstract class Servo {
         for (final AnalogOutputPin pin : pins) pin.off(ignoreLimit);
     }
 
-    protected void low(final int delay, @NotNull final AnalogOutputPin... pins) {
-        low(false,delay,pins);
+    protected @NotNull Timeout low(final int delay, @NotNull final AnalogOutputPin... pins) {
+        return low(false,delay,pins);
     }
 
-    protected void low(final boolean ignoreLimit, final int delay, @NotNull final AnalogOutputPin... pins) {
-        low(ignoreLimit,delay,TimeUnit.MILLISECONDS,pins);
+    protected @NotNull Timeout low(final boolean ignoreLimit, final int delay, @NotNull final AnalogOutputPin... pins) {
+        return low(ignoreLimit,delay,TimeUnit.MILLISECONDS,pins);
     }
 
-    protected void low(final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
-        low(false,delay,unit,pins);
+    protected @NotNull Timeout low(final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
+        return low(false,delay,unit,pins);
     }
 
-    protected void low(final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
-        scheduler.schedule(() -> executor.submit(() -> low(ignoreLimit, pins)),delay,unit);
+    protected @NotNull Timeout low(final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
+        return schedule(() -> low(ignoreLimit, pins),delay,unit);
     }
 
     protected void set(Number value, @NotNull final AnalogOutputPin... pins) {
@@ -80,40 +133,53 @@ public abstract class Servo {
         for (final AnalogOutputPin pin : pins) pin.set(value.intValue(), ignoreLimit);
     }
 
-    protected void set(Number value, int delay, @NotNull final AnalogOutputPin... pins) {
-        set(value,false,delay,pins);
+    protected @NotNull Timeout set(Number value, int delay, @NotNull final AnalogOutputPin... pins) {
+        return set(value,false,delay,pins);
     }
 
-    protected void set(Number value, int delay, TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
-        set(value,false,delay,unit,pins);
+    protected @NotNull Timeout set(Number value, int delay, TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
+        return set(value,false,delay,unit,pins);
     }
 
-    protected void set(Number value, boolean ignoreLimit, int delay, @NotNull final AnalogOutputPin... pins) {
-        set(value,ignoreLimit,delay,TimeUnit.MILLISECONDS,pins);
+    protected @NotNull Timeout set(Number value, boolean ignoreLimit, int delay, @NotNull final AnalogOutputPin... pins) {
+        return set(value,ignoreLimit,delay,TimeUnit.MILLISECONDS,pins);
     }
 
-    protected void set(Number value, boolean ignoreLimit, int delay, TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
-        scheduler.schedule(() -> executor.submit(() -> set(value,ignoreLimit, pins)),delay,unit);
+    protected @NotNull Timeout set(Number value, boolean ignoreLimit, int delay, TimeUnit unit, @NotNull final AnalogOutputPin... pins) {
+        return schedule(() -> set(value,ignoreLimit, pins),delay,unit);
     }
 
     public abstract void high();
     public abstract void high(boolean ignoreLimit);
-    public abstract void high(int delay);
-    public abstract void high(boolean ignoreLimit, int delay);
-    public abstract void high(int delay, TimeUnit unit);
-    public abstract void high(boolean ignoreLimit, int delay, TimeUnit unit);
+    public abstract Timeout high(int delay);
+    public abstract Timeout high(boolean ignoreLimit, int delay);
+    public abstract Timeout high(int delay, TimeUnit unit);
+    public abstract Timeout high(boolean ignoreLimit, int delay, TimeUnit unit);
     public abstract void low();
     public abstract void low(boolean ignoreLimit);
-    public abstract void low(int delay);
-    public abstract void low(boolean ignoreLimit, int delay);
-    public abstract void low(int delay, TimeUnit unit);
-    public abstract void low(boolean ignoreLimit, int delay, TimeUnit unit);
+    public abstract Timeout low(int delay);
+    public abstract Timeout low(boolean ignoreLimit, int delay);
+    public abstract Timeout low(int delay, TimeUnit unit);
+    public abstract Timeout low(boolean ignoreLimit, int delay, TimeUnit unit);
     public abstract void set(Number value);
     public abstract void set(Number value, boolean ignoreLimit);
-    public abstract void set(Number value, int delay);
-    public abstract void set(Number value, boolean ignoreLimit, int delay);
-    public abstract void set(Number value, int delay, TimeUnit unit);
-    public abstract void set(Number value, boolean ignoreLimit, int delay, TimeUnit unit);
+    public abstract Timeout set(Number value, int delay);
+    public abstract Timeout set(Number value, boolean ignoreLimit, int delay);
+    public abstract Timeout set(Number value, int delay, TimeUnit unit);
+    public abstract Timeout set(Number value, boolean ignoreLimit, int delay, TimeUnit unit);
+
+    /**
+     * Set the servo to the given value immediately. Unlike {@link #set(Number)}, the value is never boxed.
+     * @param value The new value.
+     */
+    public abstract void setInt(int value);
+
+    /**
+     * Set the servo to the given value immediately. Unlike {@link #set(Number, boolean)}, the value is never boxed.
+     * @param value The new value.
+     * @param ignoreLimit True if the max limit should be ignored, otherwise false.
+     */
+    public abstract void setInt(int value, boolean ignoreLimit);
 
     private static final class ServoRaw extends Servo {
 
@@ -139,23 +205,23 @@ public abstract class Servo {
         }
 
         @Override
-        public void high(final int delay) {
-            this.high(delay,pin);
+        public Timeout high(final int delay) {
+            return this.high(delay,pin);
         }
 
         @Override
-        public void high(final boolean ignoreLimit, final int delay) {
-            this.high(ignoreLimit,delay,pin);
+        public Timeout high(final boolean ignoreLimit, final int delay) {
+            return this.high(ignoreLimit,delay,pin);
         }
 
         @Override
-        public void high(final int delay, final @NotNull TimeUnit unit) {
-            this.high(delay,unit,pin);
+        public Timeout high(final int delay, final @NotNull TimeUnit unit) {
+            return this.high(delay,unit,pin);
         }
 
         @Override
-        public void high(final boolean ignoreLimit, final int delay, final @NotNull TimeUnit unit) {
-            this.high(ignoreLimit,delay,unit,pin);
+        public Timeout high(final boolean ignoreLimit, final int delay, final @NotNull TimeUnit unit) {
+            return this.high(ignoreLimit,delay,unit,pin);
         }
 
         @Override
@@ -169,23 +235,23 @@ public abstract class Servo {
         }
 
         @Override
-        public void low(final int delay) {
-            this.low(delay,pin);
+        public Timeout low(final int delay) {
+            return this.low(delay,pin);
         }
 
         @Override
-        public void low(final boolean ignoreLimit, final int delay) {
-            this.low(ignoreLimit,delay,pin);
+        public Timeout low(final boolean ignoreLimit, final int delay) {
+            return this.low(ignoreLimit,delay,pin);
         }
 
         @Override
-        public void low(final int delay, final @NotNull TimeUnit unit) {
-            this.low(delay,unit,pin);
+        public Timeout low(final int delay, final @NotNull TimeUnit unit) {
+            return this.low(delay,unit,pin);
         }
 
         @Override
-        public void low(final boolean ignoreLimit, final int delay, final @NotNull TimeUnit unit) {
-            this.low(ignoreLimit,delay,unit,pin);
+        public Timeout low(final boolean ignoreLimit, final int delay, final @NotNull TimeUnit unit) {
+            return this.low(ignoreLimit,delay,unit,pin);
         }
 
         @Override
@@ -199,46 +265,152 @@ public abstract class Servo {
         }
 
         @Override
-        public void set(@NotNull final Number value, final int delay) {
-            this.set(value,delay,pin);
+        public Timeout set(@NotNull final Number value, final int delay) {
+            return this.set(value,delay,pin);
         }
 
         @Override
-        public void set(final Number value, final boolean ignoreLimit, final int delay) {
-            this.set(value,ignoreLimit,delay,pin);
+        public Timeout set(final Number value, final boolean ignoreLimit, final int delay) {
+            return this.set(value,ignoreLimit,delay,pin);
         }
 
         @Override
-        public void set(final Number value, final int delay, @NotNull final TimeUnit unit) {
-            this.set(value,delay,unit,pin);
+        public Timeout set(final Number value, final int delay, @NotNull final TimeUnit unit) {
+            return this.set(value,delay,unit,pin);
         }
 
         @Override
-        public void set(@NotNull final Number value, final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit) {
-            this.set(value,ignoreLimit,delay,unit,pin);
+        public Timeout set(@NotNull final Number value, final boolean ignoreLimit, final int delay, @NotNull final TimeUnit unit) {
+            return this.set(value,ignoreLimit,delay,unit,pin);
         }
-    }
 
-    private static final class ServoL298N extends Servo {
+        @Override
+        public void setInt(final int value) {
+            pin.set(value,false);
+        }
 
-        public ServoL298N(@NotNull final Context pi4j,
-                          @NotNull final PinIdentifier forwardOne, @NotNull final PinIdentifier backwardOne,
-                          @NotNull final PinIdentifier forwardTwo, @NotNull final PinIdentifier backwardTwo,
-                          final boolean externalDacChip, @Nullable final Range range) {
-            super(pi4j,externalDacChip,range);
-            console.println("New L298N Servo Instance created.");
+        @Override
+        public void setInt(final int value, final boolean ignoreLimit) {
+            pin.set(value,ignoreLimit);
+        }
+
+        @Override
+        protected void shutdown() {
+            pin.close();
         }
     }
 
-    private static final class ServoL9110H extends Servo {
+    /**
+     * An L298N dual H-bridge. Every channel is driven by an enable pin carrying the PWM speed,
+     * and two input pins setting the direction.
+     * <li><b>Forward:</b> IN1 high, IN2 low.</li>
+     * <li><b>Reverse:</b> IN1 low, IN2 high.</li>
+     * <li><b>Brake:</b> IN1 and IN2 high, enable fully on.</li>
+     * <li><b>Coast:</b> IN1 and IN2 low, enable off.</li>
+     */
+    private static final class ServoL298N extends HBridgeServo {
+
+        private final PwmPin[] enable;
+        private final DigitalOutputPin[] inputOne;
+        private final DigitalOutputPin[] inputTwo;
+
+        public ServoL298N(@NotNull final Context pi4j, @NotNull final PinIdentifier[][] channels, final int frequency, @NotNull final Range range) {
+            super(pi4j,channels.length,range);
+            enable = new PwmPin[channels.length];
+            inputOne = new DigitalOutputPin[channels.length];
+            inputTwo = new DigitalOutputPin[channels.length];
+            try {
+                for (int i = 0; i < channels.length; i++) {
+                    enable[i] = new PwmPin(pi4j,channels[i][0],frequency);
+                    inputOne[i] = new DigitalOutputPin(pi4j,channels[i][1]);
+                    inputTwo[i] = new DigitalOutputPin(pi4j,channels[i][2]);
+                }
+            } catch (final RuntimeException exception) {
+                Pin.closeAll(exception,enable,inputOne,inputTwo);
+                throw exception;
+            }
+            console.println("New L298N Servo Instance created.");
+        }
+
+        @Override
+        protected void writeDirection(final int channel, final int mode) {
+            inputOne[channel].set(mode == forward || mode == brake);
+            inputTwo[channel].set(mode == reverse || mode == brake);
+        }
+
+        @Override
+        protected void writeSpeed(final int channel, final int mode, final float duty) {
+            if (mode == coast) enable[channel].off();
+            else enable[channel].on(mode == brake ? 100f : duty);
+        }
+
+        @Override
+        protected void shutdown() {
+            try {
+                super.shutdown();
+            } catch (final RuntimeException exception) {
+                Pin.closeAll(exception,enable,inputOne,inputTwo);
+                throw exception;
+            }
+            Pin.closeAll(enable,inputOne,inputTwo);
+        }
+    }
 
-        public ServoL9110H(@NotNull final Context pi4j,
-                           @NotNull final PinIdentifier forwardOne, @NotNull final PinIdentifier backwardOne,
-                           @NotNull final PinIdentifier forwardTwo, @NotNull final PinIdentifier backwardTwo,
-                           final boolean externalDacChip, @Nullable final Range range) {
-            super(pi4j,externalDacChip,range);
+    /**
+     * An L9110H H-bridge. Every channel has two inputs, one of which carries the PWM speed,
+     * while the other sets the direction. When reversing, the PWM is inverted, as the motor is then
+     * driven while the PWM input is low.
+     * <li><b>Forward:</b> IB low, IA at the duty cycle.</li>
+     * <li><b>Reverse:</b> IB high, IA at the inverted duty cycle.</li>
+     * <li><b>Brake:</b> IA and IB high.</li>
+     * <li><b>Coast:</b> IA and IB low.</li>
+     */
+    private static final class ServoL9110H extends HBridgeServo {
+
+        private final PwmPin[] inputA;
+        private final DigitalOutputPin[] inputB;
+
+        public ServoL9110H(@NotNull final Context pi4j, @NotNull final PinIdentifier[][] channels, final int frequency, @NotNull final Range range) {
+            super(pi4j,channels.length,range);
+            inputA = new PwmPin[channels.length];
+            inputB = new DigitalOutputPin[channels.length];
+            try {
+                for (int i = 0; i < channels.length; i++) {
+                    inputA[i] = new PwmPin(pi4j,channels[i][0],frequency);
+                    inputB[i] = new DigitalOutputPin(pi4j,channels[i][1]);
+                }
+            } catch (final RuntimeException exception) {
+                Pin.closeAll(exception,inputA,inputB);
+                throw exception;
+            }
             console.println("New L9110H Servo Instance created.");
         }
+
+        @Override
+        protected void writeDirection(final int channel, final int mode) {
+            inputB[channel].set(mode == reverse || mode == brake);
+        }
+
+        @Override
+        protected void writeSpeed(final int channel, final int mode, final float duty) {
+            switch (mode) {
+                case forward -> inputA[channel].on(duty);
+                case reverse -> inputA[channel].on(100f - duty);
+                case brake -> inputA[channel].on(100f);
+                default -> inputA[channel].off();
+            }
+        }
+
+        @Override
+        protected void shutdown() {
+            try {
+                super.shutdown();
+            } catch (final RuntimeException exception) {
+                Pin.closeAll(exception,inputA,inputB);
+                throw exception;
+            }
+            Pin.closeAll(inputA,inputB);
+        }
     }
 
     public enum Driver {
@@ -256,40 +428,52 @@ public abstract class Servo {
         };
     }
 
+    public static @NotNull Builder.L298NBuilder l298n(@NotNull final Context pi4j) {
+        return new Builder.L298NBuilder(pi4j);
+    }
+
+    public static @NotNull Builder.L9110HBuilder l9110h(@NotNull final Context pi4j) {
+        return new Builder.L9110HBuilder(pi4j);
+    }
+
     public abstract static class Builder {
 
+        protected final Context pi4j;
         protected Number min = 0;
         protected Number max = 1023;
         protected boolean externalDacChip = false;
 
-        protected Builder min(@NotNull final Number minimum) {
+        protected Builder(@NotNull final Context pi4j) {
+            this.pi4j = pi4j;
+        }
+
+        public Builder min(@NotNull final Number minimum) {
             min = minimum;
             return this;
         }
 
-        protected Builder max(@NotNull final Number maximum) {
+        public Builder max(@NotNull final Number maximum) {
             max = maximum;
             return this;
         }
 
-        protected Builder range(@NotNull final Number minimum, @NotNull final Number maximum) {
+        public Builder range(@NotNull final Number minimum, @NotNull final Number maximum) {
             return min(minimum).max(maximum);
         }
 
-        protected Builder externalDacChip(final boolean enable) {
+        public Builder externalDacChip(final boolean enable) {
             externalDacChip = enable;
             return this;
         }
 
-        protected abstract Servo build();
+        public abstract Servo build();
 
         public static class RawBuilder extends Builder {
 
-            protected final Context pi4j;
             private PinIdentifier powerPin;
 
             public RawBuilder(@NotNull final Context pi4j) {
-                this.pi4j = pi4j;
+                super(pi4j);
             }
 
             public Builder pin(final int pin) {
@@ -309,27 +493,122 @@ public abstract class Servo {
             }
         }
 
-        protected static final class L298NBuilder extends Builder {
+        /**
+         * Shared configuration of the H-bridge builders.<br>
+         * The range maps {@link Servo#set(Number)} onto the speed of the motor: the maximum is full speed forward,
+         * its negative full speed in reverse, and values within the minimum coast.
+         */
+        public abstract static class HBridgeBuilder extends Builder {
+
+            protected int frequency = 1000;
+            protected long deadTime = HBridgeServo.defaultDeadTimeMillis;
+            protected TimeUnit deadTimeUnit = TimeUnit.MILLISECONDS;
+
+            protected HBridgeBuilder(@NotNull final Context pi4j) {
+                super(pi4j);
+            }
+
+            /**
+             * @param hz The PWM frequency of the speed pins. Default is 1000.
+             * @return The Builder Instance.
+             * @apiNote <i>This setting is <b>optional</b>.</i>
+             */
+            public HBridgeBuilder frequency(final int hz) {
+                frequency = hz;
+                return this;
+            }
+
+            /**
+             * @param time The time a channel coasts for before reversing. Default is 5 milliseconds.
+             * @param unit The unit of the dead-time.
+             * @return The Builder Instance.
+             * @apiNote <i>This setting is <b>optional</b>.</i>
+             */
+            public HBridgeBuilder deadTime(final long time, @NotNull final TimeUnit unit) {
+                deadTime = time;
+                deadTimeUnit = unit;
+                return this;
+            }
+
+            @Override
+            public abstract HBridgeServo build();
+        }
+
+        public static final class L298NBuilder extends HBridgeBuilder {
+
+            private PinIdentifier[] channelA;
+            private PinIdentifier[] channelB;
 
             public L298NBuilder(@NotNull final Context pi4j) {
                 super(pi4j);
             }
 
+            /**
+             * @param enable   The ENA pin, which must support PWM.
+             * @param inputOne The IN1 pin.
+             * @param inputTwo The IN2 pin.
+             * @return The Builder Instance.
+             */
+            public L298NBuilder channelA(@NotNull final PinIdentifier enable, @NotNull final PinIdentifier inputOne, @NotNull final PinIdentifier inputTwo) {
+                channelA = new PinIdentifier[]{enable,inputOne,inputTwo};
+                return this;
+            }
+
+            /**
+             * @param enable   The ENB pin, which must support PWM.
+             * @param inputOne The IN3 pin.
+             * @param inputTwo The IN4 pin.
+             * @return The Builder Instance.
+             * @apiNote <i>This setting is <b>optional</b>.</i>
+             */
+            public L298NBuilder channelB(@NotNull final PinIdentifier enable, @NotNull final PinIdentifier inputOne, @NotNull final PinIdentifier inputTwo) {
+                channelB = new PinIdentifier[]{enable,inputOne,inputTwo};
+                return this;
+            }
+
             @Override
-            protected Servo build() {
-                return null;
+            public HBridgeServo build() throws IllegalArgumentException {
+                if (channelA == null) throw new IllegalArgumentException("Cannot create an L298N instance with no channel A defined!");
+                final PinIdentifier[][] channels = channelB == null ? new PinIdentifier[][]{channelA} : new PinIdentifier[][]{channelA,channelB};
+                return new ServoL298N(pi4j,channels,frequency,new Range(min,max)).deadTime(deadTime,deadTimeUnit);
             }
         }
 
-        protected static final class L9110HBuilder extends Builder {
+        public static final class L9110HBuilder extends HBridgeBuilder {
+
+            private PinIdentifier[] channelA;
+            private PinIdentifier[] channelB;
 
             public L9110HBuilder(@NotNull final Context pi4j) {
                 super(pi4j);
             }
 
+            /**
+             * @param inputA The A-IA pin, which must support PWM.
+             * @param inputB The A-IB pin.
+             * @return The Builder Instance.
+             */
+            public L9110HBuilder channelA(@NotNull final PinIdentifier inputA, @NotNull final PinIdentifier inputB) {
+                channelA = new PinIdentifier[]{inputA,inputB};
+                return this;
+            }
+
+            /**
+             * @param inputA The B-IA pin, which must support PWM.
+             * @param inputB The B-IB pin.
+             * @return The Builder Instance.
+             * @apiNote <i>This setting is <b>optional</b>.</i>
+             */
+            public L9110HBuilder channelB(@NotNull final PinIdentifier inputA, @NotNull final PinIdentifier inputB) {
+                channelB = new PinIdentifier[]{inputA,inputB};
+                return this;
+            }
+
             @Override
-            protected Servo build() {
-                return null;
+            public HBridgeServo build() throws IllegalArgumentException {
+                if (channelA == null) throw new IllegalArgumentException("Cannot create an L9110H instance with no channel A defined!");
+                final PinIdentifier[][] channels = channelB == null ? new PinIdentifier[][]{channelA} : new PinIdentifier[][]{channelA,channelB};
+                return new ServoL9110H(pi4j,channels,frequency,new Range(min,max)).deadTime(deadTime,deadTimeUnit);
             }
         }
     }
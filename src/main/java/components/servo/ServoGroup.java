@@ -0,0 +1,361 @@
+package components.servo;
+
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import components.servo.motion.MotionProfile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives several servos as one, such as the joints of an arm.<br>
+ * Every command of a group is run by a single task, which writes all of its servos back-to-back,
+ * so the servos never drift apart the way independently scheduled commands do.
+ * <li><b>Immediate and delayed commands:</b> All servos are set to their values in the same call.</li>
+ * <li><b>Motions:</b> Every servo follows its own {@link MotionProfile}, all of them played back by one periodic task
+ * on the {@link ActuationScheduler}, one control tick at a time. Motions can be time-scaled so all servos arrive
+ * at the same moment, the slowest servo setting the pace.</li>
+ * The group measures the skew between its first and last write of every tick, which is the time the servos are
+ * out of step with each other.
+ */
+@SuppressWarnings("unused")
+public final class ServoGroup implements AutoCloseable {
+
+    private final Servo[] servos;
+    private final long periodNanos;
+    private final double period;
+
+    private final double[] maxVelocity;
+    private final double[] maxAcceleration;
+    private final double[] maxJerk;
+
+    private final MotionProfile[] profiles;
+    private final MotionProfile scratch = new MotionProfile();
+    private final double[] positions;
+    private final double[] velocities;
+    private final double[] targets;
+    private final int[] values;
+    private final boolean[] pending;
+    private int index = 0;
+    private int length = 0;
+    private Timeout timeout;
+
+    private volatile long writes = 0;
+    private volatile long lastSkew = 0;
+    private volatile long maximumSkew = 0;
+    private volatile long totalSkew = 0;
+
+    /**
+     * Create a new Servo Group. All servos are assumed to start at position 0, see {@link #positions(double...)}.
+     * Until limits are set, motions move the servos straight to their targets.
+     *
+     * @param hz     The control rate of motions.
+     * @param servos The servos of the group, in channel order.
+     * @throws IllegalArgumentException If the control rate is not positive, or no servos are given.
+     */
+    public ServoGroup(final double hz, @NotNull final Servo... servos) throws IllegalArgumentException {
+        if (!(hz > 0)) throw new IllegalArgumentException("The control rate must be more than 0!");
+        else if (servos.length == 0) throw new IllegalArgumentException("A servo group must contain at least one servo!");
+        this.servos = servos.clone();
+        this.periodNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / hz);
+        this.period = periodNanos / 1e9;
+        final int size = servos.length;
+        this.maxVelocity = new double[size];
+        this.maxAcceleration = new double[size];
+        this.maxJerk = new double[size];
+        this.profiles = new MotionProfile[size];
+        this.positions = new double[size];
+        this.velocities = new double[size];
+        this.targets = new double[size];
+        this.values = new int[size];
+        this.pending = new boolean[size];
+        for (int i = 0; i < size; i++) profiles[i] = new MotionProfile();
+        Arrays.fill(maxVelocity, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxAcceleration, Double.POSITIVE_INFINITY);
+        Arrays.fill(values, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Set the limits of every servo in the group.
+     *
+     * @param maxVelocity     The maximum velocity, in units per second.
+     * @param maxAcceleration The maximum acceleration, in units per second squared.
+     * @param maxJerk         The maximum jerk, in units per second cubed, or 0 for trapezoidal profiles.
+     * @return The Servo Group Instance.
+     * @throws IllegalArgumentException If the velocity or acceleration is not positive, or the jerk is negative.
+     */
+    public synchronized ServoGroup limits(final double maxVelocity, final double maxAcceleration, final double maxJerk) throws IllegalArgumentException {
+        for (int channel = 0; channel < servos.length; channel++) limits(channel,maxVelocity,maxAcceleration,maxJerk);
+        return this;
+    }
+
+    /**
+     * Set the limits of a single servo in the group. Takes effect from the next commanded motion.
+     *
+     * @param channel         The channel of the servo.
+     * @param maxVelocity     The maximum velocity, in units per second.
+     * @param maxAcceleration The maximum acceleration, in units per second squared.
+     * @param maxJerk         The maximum jerk, in units per second cubed, or 0 for trapezoidal profiles.
+     * @return The Servo Group Instance.
+     * @throws IllegalArgumentException If the velocity or acceleration is not positive, or the jerk is negative.
+     */
+    public synchronized ServoGroup limits(final int channel, final double maxVelocity, final double maxAcceleration, final double maxJerk) throws IllegalArgumentException {
+        checkChannel(channel);
+        if (!(maxVelocity > 0) || !(maxAcceleration > 0)) throw new IllegalArgumentException("The maximum velocity and acceleration must be more than 0!");
+        else if (!(maxJerk >= 0)) throw new IllegalArgumentException("The maximum jerk cannot be less than 0!");
+        this.maxVelocity[channel] = maxVelocity;
+        this.maxAcceleration[channel] = maxAcceleration;
+        this.maxJerk[channel] = maxJerk;
+        return this;
+    }
+
+    /**
+     * Declare the current positions of the servos, without writing them.
+     *
+     * @param positions The position of every servo, in channel order.
+     * @return The Servo Group Instance.
+     * @throws IllegalArgumentException If the number of positions does not match the number of servos.
+     */
+    public synchronized ServoGroup positions(@NotNull final double... positions) throws IllegalArgumentException {
+        checkSize(positions.length);
+        System.arraycopy(positions,0,this.positions,0,positions.length);
+        System.arraycopy(positions,0,this.targets,0,positions.length);
+        return this;
+    }
+
+    /**
+     * Set every servo to its value immediately, stopping any motion in progress.
+     *
+     * @param values The value of every servo, in channel order.
+     * @throws IllegalArgumentException If the number of values does not match the number of servos.
+     */
+    public synchronized void set(@NotNull final int... values) throws IllegalArgumentException {
+        checkSize(values.length);
+        stopMotion();
+        for (int i = 0; i < servos.length; i++) {
+            this.values[i] = values[i];
+            positions[i] = targets[i] = values[i];
+            velocities[i] = 0;
+            pending[i] = true;
+        }
+        write();
+    }
+
+    /**
+     * Set every servo to its value after the given delay, all of them in the same task.
+     *
+     * @param delay  The delay before the servos are set.
+     * @param unit   The unit of the delay.
+     * @param values The value of every servo, in channel order.
+     * @return A handle which can be used to cancel the command.
+     * @throws IllegalArgumentException If the number of values does not match the number of servos.
+     */
+    public @NotNull Timeout set(final long delay, @NotNull final TimeUnit unit, @NotNull final int... values) throws IllegalArgumentException {
+        checkSize(values.length);
+        final int[] copy = values.clone();
+        return ActuationScheduler.schedule(() -> set(copy),delay,unit);
+    }
+
+    /**
+     * Move every servo to its target as fast as its limits allow. Servos may arrive at different times.
+     *
+     * @param targets The target of every servo, in channel order.
+     * @return The Servo Group Instance.
+     * @throws IllegalArgumentException If the number of targets does not match the number of servos.
+     */
+    public synchronized ServoGroup moveTo(@NotNull final double[] targets) throws IllegalArgumentException {
+        return moveTo(targets,false);
+    }
+
+    /**
+     * Move every servo to its target. Replaces any motion in progress.
+     *
+     * @param targets     The target of every servo, in channel order.
+     * @param synchronize True if all servos should arrive together, slowing the faster ones down, otherwise false.
+     * @return The Servo Group Instance.
+     * @throws IllegalArgumentException If the number of targets does not match the number of servos.
+     */
+    public synchronized ServoGroup moveTo(@NotNull final double[] targets, final boolean synchronize) throws IllegalArgumentException {
+        return synchronize ? moveTo(targets,0d) : play(targets,-1);
+    }
+
+    /**
+     * Move every servo to its target, all of them arriving together after the given time.
+     * Should the limits of a servo not allow it to arrive in time, all servos arrive together as soon as the slowest can.
+     * Replaces any motion in progress.
+     *
+     * @param targets The target of every servo, in channel order.
+     * @param seconds The time the motion should take.
+     * @return The Servo Group Instance.
+     * @throws IllegalArgumentException If the number of targets does not match the number of servos.
+     */
+    public synchronized ServoGroup moveTo(@NotNull final double[] targets, final double seconds) throws IllegalArgumentException {
+        return play(targets,Math.max(0, seconds));
+    }
+
+    /**
+     * Get the time a synchronized motion to the targets would take, at the current limits.
+     *
+     * @param targets The target of every servo, in channel order.
+     * @return The duration in seconds.
+     * @throws IllegalArgumentException If the number of targets does not match the number of servos.
+     */
+    public synchronized double minimumDuration(@NotNull final double[] targets) throws IllegalArgumentException {
+        checkSize(targets.length);
+        double duration = 0;
+        for (int i = 0; i < servos.length; i++) duration = Math.max(duration, generate(scratch,i,targets[i],1).duration());
+        return duration;
+    }
+
+    private MotionProfile generate(@NotNull final MotionProfile profile, final int channel, final double target, final double scale) {
+        // Without limits, a servo jumps straight to its target.
+        if (Double.isInfinite(maxVelocity[channel])) return profile.trapezoidal(target,0,target,1,1,period);
+        final double velocity = maxVelocity[channel] / scale;
+        final double acceleration = maxAcceleration[channel] / (scale * scale);
+        if (maxJerk[channel] == 0) return profile.trapezoidal(positions[channel],velocities[channel],target,velocity,acceleration,period);
+        return profile.sCurve(positions[channel],velocities[channel],target,velocity,acceleration,maxJerk[channel] / (scale * scale * scale),period);
+    }
+
+    private ServoGroup play(@NotNull final double[] targets, final double seconds) {
+        checkSize(targets.length);
+        final double[] copy = targets.clone();
+        double duration = seconds;
+        for (int i = 0; i < servos.length; i++) {
+            final double minimum = generate(profiles[i],i,copy[i],1).duration();
+            if (seconds >= 0) duration = Math.max(duration, minimum);
+        }
+        length = 0;
+        for (int i = 0; i < servos.length; i++) {
+            if (seconds >= 0) {
+                final double minimum = profiles[i].duration();
+                if (duration > minimum && minimum > period) generate(profiles[i],i,copy[i],duration / minimum);
+            }
+            length = Math.max(length, profiles[i].length());
+            this.targets[i] = copy[i];
+        }
+        index = 0;
+        if (timeout == null || !timeout.isPending()) timeout = ActuationScheduler.scheduleAtFixedRate(this::tick,0,periodNanos,TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    private synchronized void tick() {
+        if (index >= length) {
+            stopMotion();
+            return;
+        }
+        for (int i = 0; i < servos.length; i++) {
+            final MotionProfile profile = profiles[i];
+            if (index >= profile.length()) {
+                velocities[i] = 0;
+                continue;
+            }
+            final double next = profile.position(index);
+            velocities[i] = (next - positions[i]) / period;
+            positions[i] = next;
+            final int value = (int) Math.round(next);
+            pending[i] = value != values[i];
+            values[i] = value;
+        }
+        index++;
+        write();
+    }
+
+    private void write() {
+        final long start = System.nanoTime();
+        for (int i = 0; i < servos.length; i++) {
+            if (!pending[i]) continue;
+            pending[i] = false;
+            servos[i].setInt(values[i]);
+        }
+        final long skew = System.nanoTime() - start;
+        lastSkew = skew;
+        totalSkew += skew;
+        if (skew > maximumSkew) maximumSkew = skew;
+        writes++;
+    }
+
+    private void stopMotion() {
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+        index = length;
+        Arrays.fill(velocities, 0);
+    }
+
+    /**
+     * Stop the motion in progress immediately, holding the current positions.
+     */
+    public synchronized void stop() {
+        stopMotion();
+        System.arraycopy(positions,0,targets,0,positions.length);
+    }
+
+    public synchronized boolean isMoving() {
+        return timeout != null;
+    }
+
+    private void checkChannel(final int channel) throws IndexOutOfBoundsException {
+        if (channel < 0 || channel >= servos.length) throw new IndexOutOfBoundsException("Channel %d does not exist in a group of %d servos!".formatted(channel,servos.length));
+    }
+
+    private void checkSize(final int size) throws IllegalArgumentException {
+        if (size != servos.length) throw new IllegalArgumentException("Expected %d values, one per servo, but got %d!".formatted(servos.length,size));
+    }
+
+    public int size() {
+        return servos.length;
+    }
+
+    public @NotNull Servo getServo(final int channel) {
+        checkChannel(channel);
+        return servos[channel];
+    }
+
+    /**
+     * @param channel The channel of the servo.
+     * @return The last position sent to the servo.
+     */
+    public synchronized double position(final int channel) {
+        checkChannel(channel);
+        return positions[channel];
+    }
+
+    public synchronized double target(final int channel) {
+        checkChannel(channel);
+        return targets[channel];
+    }
+
+    /**
+     * @return The number of times the group has written its servos.
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    /**
+     * @return The time between the first and last write of the latest tick, in nanoseconds.
+     */
+    public long getLastSkew() {
+        return lastSkew;
+    }
+
+    /**
+     * @return The largest time between the first and last write of a tick, in nanoseconds.
+     */
+    public long getMaximumSkew() {
+        return maximumSkew;
+    }
+
+    /**
+     * @return The mean time between the first and last write of a tick, in nanoseconds.
+     */
+    public double getMeanSkew() {
+        final long writes = this.writes;
+        return writes == 0 ? 0 : (double) totalSkew / writes;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+}
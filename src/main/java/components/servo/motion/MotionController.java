@@ -0,0 +1,203 @@
+package components.servo.motion;
+
+import components.base.pins.analog.AnalogOutputPin;
+import components.base.pins.pwm.PwmPin;
+import components.base.scheduling.ActuationScheduler;
+import components.base.scheduling.Timeout;
+import components.servo.Servo;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Streams the setpoints of a {@link MotionProfile} to an output at a fixed control rate.<br>
+ * Every motion is precomputed when it is commanded, and played back one position per tick by a periodic task
+ * on the shared {@link ActuationScheduler}, so any number of controllers can run concurrently without a thread
+ * each and without allocating per step. A motion can be retargeted at any time, in which case a new profile is
+ * generated from the current position and velocity, and the motion continues smoothly towards the new target.
+ * The periodic task only runs while a motion is in progress.
+ */
+@SuppressWarnings("unused")
+public final class MotionController implements AutoCloseable {
+
+    private final DoubleConsumer output;
+    private final long periodNanos;
+    private final double period;
+
+    private double maxVelocity;
+    private double maxAcceleration;
+    private double maxJerk;
+
+    private MotionProfile active = new MotionProfile();
+    private MotionProfile spare = new MotionProfile();
+    private int index = 0;
+    private double position;
+    private double velocity = 0;
+    private double target;
+    private Timeout timeout;
+
+    /**
+     * Create a new Motion Controller.
+     *
+     * @param output          Receives every setpoint.
+     * @param position        The current position of the output.
+     * @param hz              The control rate.
+     * @param maxVelocity     The maximum velocity, in units per second.
+     * @param maxAcceleration The maximum acceleration, in units per second squared.
+     * @param maxJerk         The maximum jerk, in units per second cubed, or 0 for trapezoidal profiles.
+     * @throws IllegalArgumentException If the control rate, velocity or acceleration is not positive, or the jerk is negative.
+     */
+    public MotionController(@NotNull final DoubleConsumer output, final double position, final double hz,
+                            final double maxVelocity, final double maxAcceleration, final double maxJerk) throws IllegalArgumentException {
+        if (!(hz > 0)) throw new IllegalArgumentException("The control rate must be more than 0!");
+        this.output = output;
+        this.periodNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / hz);
+        this.period = periodNanos / 1e9;
+        this.position = position;
+        this.target = position;
+        limits(maxVelocity,maxAcceleration,maxJerk);
+    }
+
+    public static @NotNull MotionController of(@NotNull final Servo servo, final double position, final double hz,
+                                               final double maxVelocity, final double maxAcceleration, final double maxJerk) {
+        return new MotionController(value -> servo.setInt((int) Math.round(value)),position,hz,maxVelocity,maxAcceleration,maxJerk);
+    }
+
+    public static @NotNull MotionController of(@NotNull final AnalogOutputPin pin, final double position, final double hz,
+                                               final double maxVelocity, final double maxAcceleration, final double maxJerk) {
+        return new MotionController(value -> pin.set((int) Math.round(value)),position,hz,maxVelocity,maxAcceleration,maxJerk);
+    }
+
+    /**
+     * Create a controller moving the duty cycle of a PWM pin, between 0 and 100.
+     */
+    public static @NotNull MotionController of(@NotNull final PwmPin pin, final double hz,
+                                               final double maxVelocity, final double maxAcceleration, final double maxJerk) {
+        return new MotionController(value -> pin.setDutyCycle((float) Math.clamp(value,0d,100d)),pin.getDutyCycle(),hz,maxVelocity,maxAcceleration,maxJerk);
+    }
+
+    /**
+     * Change the limits of the controller. Takes effect from the next commanded motion.
+     *
+     * @param maxVelocity     The maximum velocity, in units per second.
+     * @param maxAcceleration The maximum acceleration, in units per second squared.
+     * @param maxJerk         The maximum jerk, in units per second cubed, or 0 for trapezoidal profiles.
+     * @return The Motion Controller Instance.
+     * @throws IllegalArgumentException If the velocity or acceleration is not positive, or the jerk is negative.
+     */
+    public synchronized MotionController limits(final double maxVelocity, final double maxAcceleration, final double maxJerk) throws IllegalArgumentException {
+        if (!(maxVelocity > 0) || !(maxAcceleration > 0)) throw new IllegalArgumentException("The maximum velocity and acceleration must be more than 0!");
+        else if (!(maxJerk >= 0)) throw new IllegalArgumentException("The maximum jerk cannot be less than 0!");
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+        return this;
+    }
+
+    private void generate(@NotNull final MotionProfile profile, final double target, final double scale) {
+        final double velocity = maxVelocity / scale;
+        final double acceleration = maxAcceleration / (scale * scale);
+        if (maxJerk == 0) profile.trapezoidal(position,this.velocity,target,velocity,acceleration,period);
+        else profile.sCurve(position,this.velocity,target,velocity,acceleration,maxJerk / (scale * scale * scale),period);
+    }
+
+    /**
+     * Get the time a motion to the target would take from the current position and velocity, at the current limits.
+     *
+     * @param target The target position.
+     * @return The duration in seconds.
+     */
+    public synchronized double minimumDuration(final double target) {
+        generate(spare,target,1);
+        return spare.duration();
+    }
+
+    /**
+     * Move to the target as fast as the limits allow. Replaces any motion in progress.
+     *
+     * @param target The target position.
+     * @return The Motion Controller Instance.
+     */
+    public synchronized MotionController moveTo(final double target) {
+        generate(spare,target,1);
+        return play(target);
+    }
+
+    /**
+     * Move to the target, slowing the motion down so that it takes the given time.
+     * Should the limits not allow the motion to finish in time, it is run as fast as the limits allow.
+     * Replaces any motion in progress.
+     *
+     * @param target  The target position.
+     * @param seconds The time the motion should take.
+     * @return The Motion Controller Instance.
+     */
+    public synchronized MotionController moveTo(final double target, final double seconds) {
+        generate(spare,target,1);
+        final double minimum = spare.duration();
+        if (seconds > minimum && minimum > 0) generate(spare,target,seconds / minimum);
+        return play(target);
+    }
+
+    private MotionController play(final double target) {
+        final MotionProfile next = spare;
+        spare = active;
+        active = next;
+        index = 0;
+        this.target = target;
+        if (timeout == null || !timeout.isPending()) timeout = ActuationScheduler.scheduleAtFixedRate(this::tick,0,periodNanos,TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    private synchronized void tick() {
+        if (index >= active.length()) {
+            velocity = 0;
+            if (timeout != null) timeout.cancel();
+            timeout = null;
+            return;
+        }
+        final double next = active.position(index++);
+        velocity = (next - position) / period;
+        position = next;
+        output.accept(next);
+    }
+
+    /**
+     * Stop the motion in progress immediately, holding the current position.
+     */
+    public synchronized void stop() {
+        if (timeout != null) timeout.cancel();
+        timeout = null;
+        index = active.length();
+        velocity = 0;
+        target = position;
+    }
+
+    public synchronized boolean isMoving() {
+        return timeout != null;
+    }
+
+    /**
+     * @return The last setpoint sent to the output.
+     */
+    public synchronized double position() {
+        return position;
+    }
+
+    /**
+     * @return The current velocity, in units per second.
+     */
+    public synchronized double velocity() {
+        return velocity;
+    }
+
+    public synchronized double target() {
+        return target;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+}
@@ -0,0 +1,158 @@
+package components.servo.motion;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A trajectory precomputed into a primitive array of positions, one per control period.<br>
+ * Profiles are generated numerically, which allows them to start from any position and velocity.
+ * This is what makes motions retargetable: a new profile is simply generated from wherever the old one currently is.
+ * <li><b>Trapezoidal:</b> Velocity ramps up and down at the maximum acceleration, and cruises at the maximum velocity.
+ * Braking is planned in whole control periods, so the profile comes to rest at the target rather than overshooting it.</li>
+ * <li><b>S-Curve:</b> The trapezoidal profile is smoothed by a moving average spanning the time it takes to reach
+ * the maximum acceleration at the maximum jerk, or the maximum velocity if that is reached first,
+ * which limits the jerk and removes the steps in acceleration.
+ * Where the profile goes straight from full acceleration to full deceleration, the jerk of that transition is doubled.</li>
+ * A profile reuses its arrays between generations, and only allocates when a longer trajectory than before is generated.
+ */
+@SuppressWarnings("unused")
+public final class MotionProfile {
+
+    private static final int maximumLength = 1 << 24;
+
+    private double[] positions = new double[64];
+    private double[] scratch = new double[0];
+    private int length = 0;
+    private double period = 0;
+
+    /**
+     * Generate a trapezoidal profile.
+     *
+     * @param start           The start position.
+     * @param velocity        The velocity at the start, in units per second.
+     * @param target          The target position.
+     * @param maxVelocity     The maximum velocity, in units per second.
+     * @param maxAcceleration The maximum acceleration, in units per second squared.
+     * @param period          The control period, in seconds.
+     * @return The Motion Profile Instance.
+     * @throws IllegalArgumentException If any of the limits or the period are not positive.
+     * @throws IllegalStateException    If the profile would be unreasonably long.
+     */
+    public MotionProfile trapezoidal(final double start, final double velocity, final double target,
+                                     final double maxVelocity, final double maxAcceleration, final double period) throws IllegalArgumentException, IllegalStateException {
+        if (!(maxVelocity > 0) || !(maxAcceleration > 0)) throw new IllegalArgumentException("The maximum velocity and acceleration must be more than 0!");
+        else if (!(period > 0)) throw new IllegalArgumentException("The control period must be more than 0!");
+        this.period = period;
+        this.length = 0;
+
+        final double step = maxAcceleration * period;
+        double position = start;
+        double current = velocity;
+        while (true) {
+            final double remaining = target - position;
+            if (Math.abs(remaining) <= Math.abs(current) * period + 1e-9 && Math.abs(current) <= step) break;
+            // The fastest velocity which still stops in time, slowing down by one step per period.
+            final double braking = step * (Math.sqrt(0.25 + 2 * Math.abs(remaining) / (step * period)) - 0.5);
+            final double desired = Math.copySign(Math.min(maxVelocity, braking), remaining);
+            current += Math.clamp(desired - current, -step, step);
+            final double next = position + current * period;
+            // Stop rather than cross the target, unless the motion is too fast to stop there.
+            if (remaining != 0 && Math.signum(target - next) != Math.signum(remaining) && Math.abs(current) <= step) break;
+            position = next;
+            append(position);
+        }
+        append(target);
+        return this;
+    }
+
+    /**
+     * Generate a jerk-limited S-curve profile.
+     *
+     * @param start           The start position.
+     * @param velocity        The velocity at the start, in units per second.
+     * @param target          The target position.
+     * @param maxVelocity     The maximum velocity, in units per second.
+     * @param maxAcceleration The maximum acceleration, in units per second squared.
+     * @param maxJerk         The maximum jerk, in units per second cubed.
+     * @param period          The control period, in seconds.
+     * @return The Motion Profile Instance.
+     * @throws IllegalArgumentException If any of the limits or the period are not positive.
+     * @throws IllegalStateException    If the profile would be unreasonably long.
+     */
+    public MotionProfile sCurve(final double start, final double velocity, final double target,
+                                final double maxVelocity, final double maxAcceleration, final double maxJerk, final double period) throws IllegalArgumentException, IllegalStateException {
+        if (!(maxJerk > 0)) throw new IllegalArgumentException("The maximum jerk must be more than 0!");
+        else if (!(maxVelocity > 0) || !(maxAcceleration > 0)) throw new IllegalArgumentException("The maximum velocity and acceleration must be more than 0!");
+        else if (!(period > 0)) throw new IllegalArgumentException("The control period must be more than 0!");
+        final double rampTime = Math.min(maxAcceleration / maxJerk, Math.sqrt(maxVelocity / maxJerk));
+        final int window = (int) Math.max(1, Math.round(rampTime / period));
+        // The moving average lags behind by half its window, so the raw profile is started that far ahead.
+        final double lead = start + velocity * period * (window - 1) / 2;
+        trapezoidal(window == 1 ? start : lead,velocity,target,maxVelocity,maxAcceleration,period);
+        if (window == 1 || length == 1 && velocity == 0) return this;
+
+        final int raw = length;
+        if (scratch.length < raw) scratch = new double[positions.length];
+        System.arraycopy(positions,0,scratch,0,raw);
+        length = 0;
+
+        // Positions before the start are extrapolated from the start velocity, keeping a retargeted motion continuous.
+        double sum = 0;
+        for (int i = 1; i < window; i++) sum += lead - velocity * period * (i - 1);
+        for (int i = 0; i < raw + window - 1; i++) {
+            sum += i < raw ? scratch[i] : target;
+            if (i >= window) sum -= i - window < raw ? scratch[i - window] : target;
+            else if (i > 0) sum -= lead - velocity * period * (window - i - 1);
+            append(sum / window);
+        }
+        positions[length - 1] = target;
+        return this;
+    }
+
+    private void append(final double position) throws IllegalStateException {
+        if (length == positions.length) {
+            if (length >= maximumLength) throw new IllegalStateException("Motion profile exceeds %d steps!".formatted(maximumLength));
+            positions = Arrays.copyOf(positions, length << 1);
+        }
+        positions[length++] = position;
+    }
+
+    /**
+     * @return The number of positions in the profile.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return The duration of the profile, in seconds.
+     */
+    public double duration() {
+        return length * period;
+    }
+
+    public double period() {
+        return period;
+    }
+
+    /**
+     * @param index The step of the profile.
+     * @return The position at the given step.
+     */
+    public double position(final int index) {
+        return positions[index];
+    }
+
+    /**
+     * Copy the positions of the profile into the given array.
+     *
+     * @param destination Array receiving the positions.
+     * @return The number of positions copied.
+     */
+    public int copyPositions(@NotNull final double[] destination) {
+        final int count = Math.min(length, destination.length);
+        System.arraycopy(positions,0,destination,0,count);
+        return count;
+    }
+}
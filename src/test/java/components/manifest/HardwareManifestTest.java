@@ -0,0 +1,49 @@
+package components.manifest;
+
+import com.pi4j.io.pwm.PwmType;
+import components.base.pins.pwm.PwmAllocator;
+import components.simulation.SimulatedBoard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a validated manifest is instantiated as it was validated, on the simulated board.
+ */
+class HardwareManifestTest {
+
+    private SimulatedBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new SimulatedBoard();
+        PwmAllocator.board(PwmAllocator.Board.PI_4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        board.close();
+    }
+
+    @Test
+    void sharedPwmChannelIsHeldByTheComponentValidatedFirst() {
+        // GPIO 12 and 18 share channel 0 on a Pi 4. The LED is validated first, so it holds the channel.
+        final HardwareManifest manifest = HardwareManifest.parse("""
+                led.a.pin = GPIO12
+                led.a.dimmable = true
+                led.a.frequency = 20000
+                pwm.b.pin = GPIO18
+                pwm.b.frequency = 100
+                """);
+        assertEquals(1,manifest.getWarnings().size());
+        assertTrue(manifest.getWarnings().get(0).startsWith("b shares hardware PWM channel 0 with a"),manifest.getWarnings().get(0));
+
+        try (final Hardware hardware = manifest.instantiate(board.context())) {
+            assertEquals(PwmType.HARDWARE,hardware.dimmableLed("a").getPin().getType());
+            assertEquals(PwmType.SOFTWARE,hardware.pwm("b").getType());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package components.servo;
+
+import components.base.pins.components.PinIdentifier;
+import components.simulation.OutputRecorder;
+import components.simulation.SimulatedBoard;
+import components.simulation.TimingAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a servo group writes all of its servos back-to-back, on the simulated board.
+ */
+class ServoGroupTest {
+
+    private static final PinIdentifier[] pins = {PinIdentifier.PIN_11, PinIdentifier.PIN_13, PinIdentifier.PIN_15};
+    private static final double hz = 100;
+
+    private SimulatedBoard board;
+    private ServoGroup group;
+
+    @BeforeEach
+    void setUp() {
+        board = new SimulatedBoard();
+        final Servo[] servos = new Servo[pins.length];
+        for (int i = 0; i < pins.length; i++) servos[i] = new Servo.Builder.RawBuilder(board.context()).pin(pins[i]).range(0,1023).build();
+        group = new ServoGroup(hz,servos);
+        board.recorder().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        group.close();
+        board.close();
+    }
+
+    /**
+     * Wait for the given number of writes to every servo, and collect the last write of each.
+     */
+    private List<OutputRecorder.Write> lastWrites(final int count) {
+        final List<OutputRecorder.Write> last = new ArrayList<>();
+        for (final PinIdentifier pin : pins) {
+            final List<OutputRecorder.Write> writes = board.recorder().await(pin,count,2,TimeUnit.SECONDS);
+            last.add(writes.get(writes.size() - 1));
+        }
+        return last;
+    }
+
+    @Test
+    void setWritesEveryServoBackToBack() {
+        group.set(100,200,300);
+
+        final List<OutputRecorder.Write> writes = lastWrites(1);
+        TimingAssertions.assertSkew(writes,2,TimeUnit.MILLISECONDS);
+        for (int i = 0; i < writes.size(); i++) assertEquals(100 * (i + 1),writes.get(i).value());
+    }
+
+    @Test
+    void delayedSetWritesEveryServoBackToBack() {
+        final long start = System.nanoTime();
+        group.set(20,TimeUnit.MILLISECONDS,100,200,300);
+
+        final List<OutputRecorder.Write> writes = lastWrites(1);
+        TimingAssertions.assertSkew(writes,2,TimeUnit.MILLISECONDS);
+        for (final OutputRecorder.Write write : writes) TimingAssertions.assertLatency(start,write,100,TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void synchronizedMotionArrivesTogether() {
+        final double[] targets = {300, 600, 900};
+        group.limits(10000,100000,0).moveTo(targets,true);
+
+        final List<OutputRecorder.Write> arrivals = new ArrayList<>();
+        for (int i = 0; i < pins.length; i++) {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            List<OutputRecorder.Write> writes = board.recorder().writes(pins[i]);
+            while ((writes.isEmpty() || writes.get(writes.size() - 1).value() != targets[i]) && System.nanoTime() < deadline) {
+                writes = board.recorder().await(pins[i],writes.size() + 1,2,TimeUnit.SECONDS);
+            }
+            assertEquals(targets[i],writes.get(writes.size() - 1).value());
+            arrivals.add(writes.get(writes.size() - 1));
+        }
+        // Scaled profiles may differ by a step in length, so the servos arrive within a few control ticks.
+        TimingAssertions.assertSkew(arrivals,Math.round(3000 / hz),TimeUnit.MILLISECONDS);
+        assertTrue(group.getMaximumSkew() <= TimeUnit.MILLISECONDS.toNanos(2),"Servos of a tick were written %d ns apart!".formatted(group.getMaximumSkew()));
+    }
+}
@@ -0,0 +1,81 @@
+package components.simulation;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.digital.Debouncer;
+import components.base.pins.digital.DigitalInputPin;
+import components.base.pins.digital.DigitalOutputPin;
+import components.base.pins.digital.Edge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives scripted inputs through the simulated board, and checks the outputs they cause.
+ */
+class SimulatedBoardTest {
+
+    private static final PinIdentifier input = PinIdentifier.PIN_11;
+    private static final PinIdentifier output = PinIdentifier.PIN_13;
+
+    private SimulatedBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new SimulatedBoard();
+    }
+
+    @AfterEach
+    void tearDown() {
+        board.close();
+    }
+
+    /**
+     * Create the input and output pins, with every edge of the input written to the output.
+     */
+    private DigitalInputPin mirror() {
+        final DigitalInputPin in = new DigitalInputPin(board.context(),input);
+        final DigitalOutputPin out = new DigitalOutputPin(board.context(),output);
+        in.addListener(Edge.BOTH,event -> out.set(event.state() == DigitalState.HIGH));
+        return in;
+    }
+
+    @Test
+    void debouncedBounceIsWrittenOnce() throws InterruptedException {
+        final Debouncer debouncer = Debouncer.timeWindow(10,TimeUnit.MILLISECONDS);
+        mirror().debounce(debouncer);
+        board.bounce(input,5,4,1,true);
+
+        final List<OutputRecorder.Write> writes = board.recorder().await(output,1,1,TimeUnit.SECONDS);
+        assertEquals(1,writes.get(0).value());
+        // Give any glitch which slipped through the debouncer time to show up.
+        Thread.sleep(50);
+        assertEquals(1,board.recorder().count(output));
+        assertEquals(1,debouncer.getAccepted());
+        assertTrue(debouncer.getRejected() > 0);
+    }
+
+    @Test
+    void squareWaveIsMirroredInStep() {
+        mirror();
+        // A cold script and listener path delay the first edges by class loading and compilation, so warm both up with a short cycle first.
+        board.square(input,0,10,1);
+        board.recorder().await(output,2,1,TimeUnit.SECONDS);
+        board.recorder().clear();
+        final long start = System.nanoTime();
+        board.square(input,10,40,5);
+
+        final List<OutputRecorder.Write> writes = board.recorder().await(output,10,2,TimeUnit.SECONDS);
+        for (int i = 0; i < writes.size(); i++) {
+            // Every write is measured from its own scripted edge, so one late edge cannot fail the edges around it.
+            TimingAssertions.assertLatency(start + TimeUnit.MILLISECONDS.toNanos(10 + 20 * i),writes.get(i),30,TimeUnit.MILLISECONDS);
+            assertEquals(i % 2 == 0 ? 1 : 0,writes.get(i).value());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package components.simulation;
+
+import components.base.pins.components.PinIdentifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every write made to the simulated outputs of a {@link SimulatedBoard}, with the time it was made.<br>
+ * Writes are recorded at the provider, below the library, so redundant writes the library skips never show up,
+ * and every write that would have reached real hardware does.
+ */
+@SuppressWarnings("unused")
+public final class OutputRecorder {
+
+    public enum Kind {
+        DIGITAL,
+        ANALOG,
+        PWM
+    }
+
+    /**
+     * A single write.
+     *
+     * @param timestamp The {@link System#nanoTime()} of the write.
+     * @param id        The Pi4J id of the written I/O.
+     * @param kind      The kind of output.
+     * @param value     The written value: 0 or 1 for digital outputs, the value for analog outputs,
+     *                  and the duty cycle for PWM, 0 when turned off.
+     */
+    public record Write(long timestamp, @NotNull String id, @NotNull Kind kind, double value) {}
+
+    private final List<Write> writes = new ArrayList<>();
+
+    void record(@NotNull final String id, @NotNull final Kind kind, final double value) {
+        final Write write = new Write(System.nanoTime(),id,kind,value);
+        synchronized (writes) {
+            writes.add(write);
+            writes.notifyAll();
+        }
+    }
+
+    private static boolean matches(@NotNull final Write write, @NotNull final PinIdentifier pin) {
+        final String id = write.id();
+        final int hash = id.indexOf('#');
+        return hash >= 0 && id.substring(hash + 1).equals(Integer.toString(pin.getPin()));
+    }
+
+    /**
+     * @return A copy of all writes so far, oldest first.
+     */
+    public @NotNull List<Write> writes() {
+        synchronized (writes) {
+            return new ArrayList<>(writes);
+        }
+    }
+
+    /**
+     * @param pin The pin.
+     * @return A copy of all writes made to the pin so far, oldest first.
+     */
+    public @NotNull List<Write> writes(@NotNull final PinIdentifier pin) {
+        final List<Write> result = new ArrayList<>();
+        synchronized (writes) {
+            for (final Write write : writes) if (matches(write,pin)) result.add(write);
+        }
+        return result;
+    }
+
+    /**
+     * @param pin The pin.
+     * @return The number of writes made to the pin so far.
+     */
+    public int count(@NotNull final PinIdentifier pin) {
+        int count = 0;
+        synchronized (writes) {
+            for (final Write write : writes) if (matches(write,pin)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Wait until the pin has been written at least the given number of times.
+     *
+     * @param pin     The pin.
+     * @param count   The number of writes to wait for.
+     * @param timeout The longest time to wait.
+     * @param unit    The unit of the timeout.
+     * @return The writes made to the pin.
+     * @throws AssertionError If the writes were not made in time.
+     */
+    public @NotNull List<Write> await(@NotNull final PinIdentifier pin, final int count, final long timeout, @NotNull final TimeUnit unit) throws AssertionError {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (writes) {
+            while (count(pin) < count) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) throw new AssertionError("Expected %d writes to %s within %d %s, but got %d!".formatted(count,pin,timeout,unit,count(pin)));
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(writes,remaining);
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new AssertionError("Interrupted while waiting for writes to %s!".formatted(pin),exception);
+                }
+            }
+        }
+        return writes(pin);
+    }
+
+    public void clear() {
+        synchronized (writes) {
+            writes.clear();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package components.simulation;
+
+import com.pi4j.io.gpio.analog.AnalogOutput;
+import com.pi4j.io.gpio.analog.AnalogOutputConfig;
+import com.pi4j.io.gpio.analog.AnalogOutputProvider;
+import com.pi4j.io.gpio.analog.AnalogOutputProviderBase;
+import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalOutputConfig;
+import com.pi4j.io.gpio.digital.DigitalOutputProvider;
+import com.pi4j.io.gpio.digital.DigitalOutputProviderBase;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.pwm.Pwm;
+import com.pi4j.io.pwm.PwmConfig;
+import com.pi4j.io.pwm.PwmProvider;
+import com.pi4j.io.pwm.PwmProviderBase;
+import com.pi4j.plugin.mock.provider.gpio.analog.MockAnalogOutput;
+import com.pi4j.plugin.mock.provider.gpio.analog.MockAnalogOutputProvider;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalOutput;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalOutputProvider;
+import com.pi4j.plugin.mock.provider.pwm.MockPwm;
+import com.pi4j.plugin.mock.provider.pwm.MockPwmProvider;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Output providers behaving exactly like the Pi4J mock providers, and sharing their ids,
+ * but reporting every write to an {@link OutputRecorder}.
+ */
+final class RecordingProviders {
+
+    private RecordingProviders() {}
+
+    static final class DigitalOutputs extends DigitalOutputProviderBase {
+
+        private final OutputRecorder recorder;
+
+        DigitalOutputs(@NotNull final OutputRecorder recorder) {
+            super(MockDigitalOutputProvider.ID,MockDigitalOutputProvider.NAME);
+            this.recorder = recorder;
+        }
+
+        @Override
+        public DigitalOutput create(final DigitalOutputConfig config) {
+            final DigitalOutput output = new RecordingDigitalOutput(this,config,recorder);
+            this.context.registry().add(output);
+            return output;
+        }
+    }
+
+    static final class AnalogOutputs extends AnalogOutputProviderBase {
+
+        private final OutputRecorder recorder;
+
+        AnalogOutputs(@NotNull final OutputRecorder recorder) {
+            super(MockAnalogOutputProvider.ID,MockAnalogOutputProvider.NAME);
+            this.recorder = recorder;
+        }
+
+        @Override
+        public AnalogOutput create(final AnalogOutputConfig config) {
+            final AnalogOutput output = new RecordingAnalogOutput(this,config,recorder);
+            this.context.registry().add(output);
+            return output;
+        }
+    }
+
+    static final class Pwms extends PwmProviderBase {
+
+        private final OutputRecorder recorder;
+
+        Pwms(@NotNull final OutputRecorder recorder) {
+            super(MockPwmProvider.ID,MockPwmProvider.NAME);
+            this.recorder = recorder;
+        }
+
+        @Override
+        public Pwm create(final PwmConfig config) {
+            final Pwm pwm = new RecordingPwm(this,config,recorder);
+            this.context.registry().add(pwm);
+            return pwm;
+        }
+    }
+
+    private static final class RecordingDigitalOutput extends MockDigitalOutput {
+
+        private final OutputRecorder recorder;
+
+        private RecordingDigitalOutput(final DigitalOutputProvider provider, final DigitalOutputConfig config, final OutputRecorder recorder) {
+            super(provider,config);
+            this.recorder = recorder;
+        }
+
+        @Override
+        public DigitalOutput state(final DigitalState state) {
+            final DigitalOutput result = super.state(state);
+            recorder.record(id(),OutputRecorder.Kind.DIGITAL,state.isHigh() ? 1 : 0);
+            return result;
+        }
+    }
+
+    private static final class RecordingAnalogOutput extends MockAnalogOutput {
+
+        private final OutputRecorder recorder;
+
+        private RecordingAnalogOutput(final AnalogOutputProvider provider, final AnalogOutputConfig config, final OutputRecorder recorder) {
+            super(provider,config);
+            this.recorder = recorder;
+        }
+
+        @Override
+        public AnalogOutput value(final Integer value) {
+            final AnalogOutput result = super.value(value);
+            recorder.record(id(),OutputRecorder.Kind.ANALOG,value());
+            return result;
+        }
+    }
+
+    private static final class RecordingPwm extends MockPwm {
+
+        private final OutputRecorder recorder;
+
+        private RecordingPwm(final PwmProvider provider, final PwmConfig config, final OutputRecorder recorder) {
+            super(provider,config);
+            this.recorder = recorder;
+        }
+
+        @Override
+        public Pwm on() {
+            final Pwm result = super.on();
+            recorder.record(id(),OutputRecorder.Kind.PWM,getDutyCycle());
+            return result;
+        }
+
+        @Override
+        public Pwm off() {
+            final Pwm result = super.off();
+            recorder.record(id(),OutputRecorder.Kind.PWM,0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package components.simulation;
+
+import com.pi4j.Pi4J;
+import com.pi4j.context.Context;
+import com.pi4j.io.IO;
+import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.plugin.mock.platform.MockPlatform;
+import com.pi4j.plugin.mock.provider.gpio.analog.MockAnalogInput;
+import com.pi4j.plugin.mock.provider.gpio.analog.MockAnalogInputProvider;
+import com.pi4j.plugin.mock.provider.gpio.analog.MockAnalogOutputProvider;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalInput;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalInputProvider;
+import com.pi4j.plugin.mock.provider.gpio.digital.MockDigitalOutputProvider;
+import com.pi4j.plugin.mock.provider.pwm.MockPwmProvider;
+import components.base.pins.Pin;
+import components.base.pins.PinRegistry;
+import components.base.pins.components.PinIdentifier;
+import components.base.pins.pwm.PwmAllocator;
+import components.base.scheduling.Timeout;
+import components.base.scheduling.TimerWheel;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Raspberry Pi simulated with the Pi4J mock plugin, for exercising the library without GPIO.<br>
+ * The board builds a Pi4J {@link Context} which can be handed to any component of the library.
+ * <li><b>Inputs:</b> Digital and analog inputs can be set directly, or scripted as waveforms played on the
+ * board's own {@link TimerWheel}.</li>
+ * <li><b>Outputs:</b> Every write to a digital output, analog output or PWM is recorded with a timestamp
+ * by the board's {@link OutputRecorder}, unless the board is created without recording.</li>
+ * Inputs are addressed by the {@link PinIdentifier} the library pin was created with.
+ * The library's pin registry is process-wide, so only one board should be in use at a time.
+ * Closing the board closes every pin still open, allowing the next board to claim them again.
+ */
+@SuppressWarnings("unused")
+public final class SimulatedBoard implements AutoCloseable {
+
+    private final Context pi4j;
+    private final OutputRecorder recorder = new OutputRecorder();
+    private final TimerWheel wheel = new TimerWheel("rpi-simulation");
+    private final List<Timeout> scripted = new ArrayList<>();
+
+    public SimulatedBoard() {
+        this(true);
+    }
+
+    /**
+     * Create a new simulated board.
+     *
+     * @param recording True to record every write to the outputs, otherwise false to use the plain Pi4J mock outputs,
+     *                  leaving the recorder empty. Benchmarks should not record, as the recorder keeps every write.
+     */
+    public SimulatedBoard(final boolean recording) {
+        this.pi4j = Pi4J.newContextBuilder()
+                .add(new MockPlatform())
+                .add(MockDigitalInputProvider.newInstance(),MockAnalogInputProvider.newInstance())
+                .add(recording ? new RecordingProviders.DigitalOutputs(recorder) : MockDigitalOutputProvider.newInstance())
+                .add(recording ? new RecordingProviders.AnalogOutputs(recorder) : MockAnalogOutputProvider.newInstance())
+                .add(recording ? new RecordingProviders.Pwms(recorder) : MockPwmProvider.newInstance())
+                .build();
+    }
+
+    public @NotNull Context context() {
+        return pi4j;
+    }
+
+    public @NotNull OutputRecorder recorder() {
+        return recorder;
+    }
+
+    private <T extends IO<?,?,?>> T input(@NotNull final PinIdentifier pin, @NotNull final Class<T> type) throws IllegalStateException {
+        final String id = pin.getId();
+        if (!pi4j.registry().exists(id)) throw new IllegalStateException("No input has been created on %s!".formatted(pin));
+        final IO<?,?,?> io = pi4j.registry().get(id);
+        if (!type.isInstance(io)) throw new IllegalStateException("%s is not a simulated %s!".formatted(pin,type.getSimpleName()));
+        return type.cast(io);
+    }
+
+    /**
+     * Drive a digital input.
+     *
+     * @param pin  The pin of the input.
+     * @param high True to drive the input high, otherwise false.
+     * @throws IllegalStateException If no digital input has been created on the pin.
+     */
+    public void digital(@NotNull final PinIdentifier pin, final boolean high) throws IllegalStateException {
+        input(pin,MockDigitalInput.class).mockState(high ? DigitalState.HIGH : DigitalState.LOW);
+    }
+
+    /**
+     * Drive an analog input.
+     *
+     * @param pin   The pin of the input.
+     * @param value The raw value.
+     * @throws IllegalStateException If no analog input has been created on the pin.
+     */
+    public void analog(@NotNull final PinIdentifier pin, final int value) throws IllegalStateException {
+        input(pin,MockAnalogInput.class).mockValue(value);
+    }
+
+    /**
+     * Drive a digital input at the given times, relative to now.
+     *
+     * @param pin    The pin of the input.
+     * @param times  The times of the changes, in milliseconds.
+     * @param states The state of every change.
+     * @throws IllegalArgumentException If the number of times and states differ.
+     */
+    public synchronized void script(@NotNull final PinIdentifier pin, @NotNull final long[] times, @NotNull final boolean[] states) throws IllegalArgumentException {
+        if (times.length != states.length) throw new IllegalArgumentException("Every scripted change needs both a time and a state!");
+        for (int i = 0; i < times.length; i++) {
+            final boolean high = states[i];
+            scripted.add(wheel.schedule(() -> digital(pin,high),times[i],TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Drive an analog input at the given times, relative to now.
+     *
+     * @param pin    The pin of the input.
+     * @param times  The times of the changes, in milliseconds.
+     * @param values The value of every change.
+     * @throws IllegalArgumentException If the number of times and values differ.
+     */
+    public synchronized void script(@NotNull final PinIdentifier pin, @NotNull final long[] times, @NotNull final int[] values) throws IllegalArgumentException {
+        if (times.length != values.length) throw new IllegalArgumentException("Every scripted change needs both a time and a value!");
+        for (int i = 0; i < times.length; i++) {
+            final int value = values[i];
+            scripted.add(wheel.schedule(() -> analog(pin,value),times[i],TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Drive a square wave onto a digital input, starting high.
+     *
+     * @param pin          The pin of the input.
+     * @param startMillis  The time of the first edge, relative to now.
+     * @param periodMillis The period of the wave.
+     * @param cycles       The number of periods.
+     */
+    public void square(@NotNull final PinIdentifier pin, final long startMillis, final long periodMillis, final int cycles) {
+        final long[] times = new long[cycles * 2];
+        final boolean[] states = new boolean[cycles * 2];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = startMillis + i * periodMillis / 2;
+            states[i] = i % 2 == 0;
+        }
+        script(pin,times,states);
+    }
+
+    /**
+     * Drive a bouncing contact onto a digital input: a number of short alternating glitches, settling on the final state.
+     *
+     * @param pin          The pin of the input.
+     * @param startMillis  The time of the first bounce, relative to now.
+     * @param bounces      The number of glitches before settling.
+     * @param bounceMillis The time between glitches.
+     * @param high         The state the input settles on.
+     */
+    public void bounce(@NotNull final PinIdentifier pin, final long startMillis, final int bounces, final long bounceMillis, final boolean high) {
+        final long[] times = new long[bounces * 2 + 1];
+        final boolean[] states = new boolean[times.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = startMillis + i * bounceMillis;
+            states[i] = i % 2 == 0 == high;
+        }
+        script(pin,times,states);
+    }
+
+    /**
+     * Cancel all scripted input changes that have not yet happened.
+     */
+    public synchronized void cancelScripts() {
+        for (final Timeout timeout : scripted) timeout.cancel();
+        scripted.clear();
+    }
+
+    @Override
+    public synchronized void close() {
+        cancelScripts();
+        wheel.close();
+        for (final PinIdentifier pin : PinRegistry.getClaimedPins()) {
+            final Object owner = PinRegistry.getOwner(pin);
+            if (owner instanceof Pin.Owner claimed) claimed.getPin().close();
+            else if (owner != null) {
+                PwmAllocator.release(pin,owner);
+                PinRegistry.release(pin,owner);
+            }
+        }
+        pi4j.shutdown();
+    }
+}
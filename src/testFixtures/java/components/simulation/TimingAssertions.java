@@ -0,0 +1,93 @@
+package components.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assertions on the timing of recorded writes. Every failed assertion throws an {@link AssertionError},
+ * so they can be used with any test framework.
+ */
+@SuppressWarnings("unused")
+public final class TimingAssertions {
+
+    private TimingAssertions() {}
+
+    private static String format(final long nanos) {
+        return "%.3f ms".formatted(nanos / 1e6);
+    }
+
+    /**
+     * Assert that a write happened within the given time after a point in time.
+     *
+     * @param fromNanos  The {@link System#nanoTime()} the latency is measured from.
+     * @param write      The write.
+     * @param maxLatency The longest acceptable latency.
+     * @param unit       The unit of the latency.
+     * @return The measured latency in nanoseconds.
+     * @throws AssertionError If the write happened before the point in time, or too late.
+     */
+    public static long assertLatency(final long fromNanos, @NotNull final OutputRecorder.Write write, final long maxLatency, @NotNull final TimeUnit unit) throws AssertionError {
+        final long latency = write.timestamp() - fromNanos;
+        if (latency < 0) throw new AssertionError("Write to %s happened %s before it was triggered!".formatted(write.id(),format(-latency)));
+        else if (latency > unit.toNanos(maxLatency)) throw new AssertionError("Write to %s took %s, expected at most %s!".formatted(write.id(),format(latency),format(unit.toNanos(maxLatency))));
+        return latency;
+    }
+
+    /**
+     * Assert that the time between consecutive writes matches the expected interval.
+     *
+     * @param writes    The writes, oldest first.
+     * @param interval  The expected interval.
+     * @param tolerance The largest acceptable deviation from the interval.
+     * @param unit      The unit of the interval and tolerance.
+     * @return The largest deviation in nanoseconds.
+     * @throws AssertionError If there are less than two writes, or any interval deviates too much.
+     */
+    public static long assertIntervals(@NotNull final List<OutputRecorder.Write> writes, final long interval, final long tolerance, @NotNull final TimeUnit unit) throws AssertionError {
+        if (writes.size() < 2) throw new AssertionError("At least two writes are needed to measure an interval, but got %d!".formatted(writes.size()));
+        final long expected = unit.toNanos(interval);
+        final long allowed = unit.toNanos(tolerance);
+        long worst = 0;
+        for (int i = 1; i < writes.size(); i++) {
+            final long actual = writes.get(i).timestamp() - writes.get(i - 1).timestamp();
+            final long deviation = Math.abs(actual - expected);
+            if (deviation > allowed) throw new AssertionError("Interval %d of %s was %s, expected %s ± %s!".formatted(i,writes.get(i).id(),format(actual),format(expected),format(allowed)));
+            worst = Math.max(worst, deviation);
+        }
+        return worst;
+    }
+
+    /**
+     * Assert that a set of writes, such as one write per servo of a group, happened close together.
+     *
+     * @param writes  The writes.
+     * @param maxSkew The longest acceptable time between the first and last write.
+     * @param unit    The unit of the skew.
+     * @return The measured skew in nanoseconds.
+     * @throws AssertionError If there are no writes, or they are spread out too far.
+     */
+    public static long assertSkew(@NotNull final List<OutputRecorder.Write> writes, final long maxSkew, @NotNull final TimeUnit unit) throws AssertionError {
+        if (writes.isEmpty()) throw new AssertionError("No writes to measure the skew of!");
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (final OutputRecorder.Write write : writes) {
+            first = Math.min(first, write.timestamp());
+            last = Math.max(last, write.timestamp());
+        }
+        final long skew = last - first;
+        if (skew > unit.toNanos(maxSkew)) throw new AssertionError("Writes were spread over %s, expected at most %s!".formatted(format(skew),format(unit.toNanos(maxSkew))));
+        return skew;
+    }
+
+    /**
+     * Assert that no writes were made.
+     *
+     * @param writes The writes.
+     * @throws AssertionError If there are any writes.
+     */
+    public static void assertNoWrites(@NotNull final List<OutputRecorder.Write> writes) throws AssertionError {
+        if (!writes.isEmpty()) throw new AssertionError("Expected no writes, but got %d, the first to %s!".formatted(writes.size(),writes.get(0).id()));
+    }
+}